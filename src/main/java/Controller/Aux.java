@@ -1,6 +1,12 @@
 package Controller;
 
+import Methods.Models.HanoiGame;
+import Methods.Models.MoveCursor;
+import Methods.Models.MoveLog;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -9,19 +15,33 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Clase que maneja la persistencia de datos
- * Guarda y lee el historial de movimientos en archivos de acceso aleatorio (.bin)
+ * Guarda y lee el historial de movimientos en archivos de acceso aleatorio (.bin):
+ * el formato v1 guarda cada movimiento como texto y el v2 (PackedHistoryFormat)
+ * como pares de torres empaquetados
  */
 public class Aux {
 
     private static final String HISTORY_DIRECTORY = "hanoi_history";
     private static final String FILE_EXTENSION = ".bin";
     private static final String TEXT_EXTENSION = ".txt";
+    private static final String JOURNAL_FILENAME = "partida_en_curso.journal";
+    private static final String CATALOG_FILENAME = "catalogo.idx";
+
+    // Catálogo compartido por todas las instancias (un único índice por directorio)
+    private static HistoryCatalog sharedCatalog;
+    private static boolean catalogUnavailable;
+
+    // Velocidades de la última compresión y descompresión (el guardado va en otro hilo)
+    private volatile CompressedHistory.Throughput lastCompressedWrite;
+    private volatile CompressedHistory.Throughput lastCompressedRead;
 
     /**
      * Constructor de Connection
@@ -53,12 +73,14 @@ public class Aux {
      * @return Nombre del archivo guardado
      * @throws IOException Si hay error en la escritura
      */
-    public String saveHistoryToBinary(List<String> moveHistory, int discCount, int totalMoves) throws IOException {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = HISTORY_DIRECTORY + File.separator +
-                "hanoi_" + discCount + "discos_" + timestamp + FILE_EXTENSION;
+    public String saveHistoryToBinary(List<String> moveHistory, int discCount, long totalMoves) throws IOException {
+        if (totalMoves > Integer.MAX_VALUE) {
+            throw new IOException("El formato binario admite como máximo " + Integer.MAX_VALUE + " movimientos");
+        }
 
-        try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+        String filename = createFilename(discCount, FILE_EXTENSION);
+
+        try (HistoryFileWriter file = new HistoryFileWriter(Paths.get(filename))) {
             // Escribir cabecera del archivo
             writeHeader(file, discCount, totalMoves, moveHistory.size());
 
@@ -66,11 +88,169 @@ public class Aux {
             for (String move : moveHistory) {
                 writeMove(file, move);
             }
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
+        }
+
+        register(filename, HistoryCatalog.FORMAT_V1, discCount, 3, totalMoves, HanoiGame.minimumMovesFor(discCount));
+        return filename;
+    }
+
+    /**
+     * Guarda en archivo binario un historial recorrido con un cursor
+     * El texto de cada movimiento se genera al escribirlo, sin materializar la lista
+     * @param cursor Cursor sobre los movimientos
+     * @param towerNames Nombres de las torres por índice
+     * @param discCount Número de discos del juego
+     * @return Nombre del archivo guardado
+     * @throws IOException Si hay error en la escritura
+     */
+    public String saveHistoryToBinary(MoveCursor cursor, String[] towerNames, int discCount) throws IOException {
+        long totalMoves = cursor.size();
+        if (totalMoves > Integer.MAX_VALUE) {
+            throw new IOException("El formato binario admite como máximo " + Integer.MAX_VALUE + " movimientos");
+        }
+
+        String filename = createFilename(discCount, FILE_EXTENSION);
+
+        try (HistoryFileWriter file = new HistoryFileWriter(Paths.get(filename))) {
+            writeHeader(file, discCount, totalMoves, (int) totalMoves);
+            while (cursor.next()) {
+                writeMove(file, describe(cursor, towerNames));
+            }
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
+        }
+
+        register(filename, HistoryCatalog.FORMAT_V1, discCount, towerNames.length, totalMoves,
+                HanoiGame.minimumMovesFor(discCount, towerNames.length));
+        return filename;
+    }
+
+    /**
+     * Guarda un registro de movimientos en el formato binario compacto v2
+     * @param moveLog Registro empaquetado del juego
+     * @return Nombre del archivo guardado
+     * @throws IOException Si hay error en la escritura
+     */
+    public String saveHistoryToPackedBinary(MoveLog moveLog) throws IOException {
+        String filename = createFilename(moveLog.getNumberOfDiscs(), FILE_EXTENSION);
+
+        PackedHistoryFormat.Header header = packedHeader(moveLog.getNumberOfDiscs(),
+                moveLog.getNumberOfPegs(), moveLog.size());
+        BlockChecksums checksums = new BlockChecksums(PackedHistoryFormat.CHECKSUM_BLOCK_SIZE);
+
+        try (HistoryFileWriter file = new HistoryFileWriter(Paths.get(filename))) {
+            PackedHistoryFormat.writeHeader(file, header);
+
+            // Las palabras del registro ya tienen el formato de los datos v2
+            long words = moveLog.getWordCount();
+            for (long word = 0; word < words; word++) {
+                long bits = moveLog.wordAt(word);
+                file.writeLong(bits);
+                checksums.updateLong(bits);
+            }
+            PackedHistoryFormat.writeFooter(file, header, checksums);
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
+        }
+
+        register(filename, HistoryCatalog.FORMAT_PACKED, moveLog.getNumberOfDiscs(), moveLog.getNumberOfPegs(),
+                moveLog.size(), HanoiGame.minimumMovesFor(moveLog.getNumberOfDiscs(), moveLog.getNumberOfPegs()));
+        return filename;
+    }
+
+    /**
+     * Guarda en el formato binario compacto v2 los movimientos de un cursor
+     * Permite exportar soluciones completas sin tenerlas en memoria
+     * @param cursor Cursor sobre los movimientos
+     * @param discCount Número de discos del juego
+     * @param numberOfPegs Número de torres del juego
+     * @return Nombre del archivo guardado
+     * @throws IOException Si hay error en la escritura
+     */
+    public String saveHistoryToPackedBinary(MoveCursor cursor, int discCount, int numberOfPegs) throws IOException {
+        String filename = createFilename(discCount, FILE_EXTENSION);
+        PackedHistoryFormat.Header header = packedHeader(discCount, numberOfPegs, cursor.size());
+        int bitsPerPeg = header.bitsPerMove / 2;
+        int movesPerWord = header.movesPerWord();
+
+        BlockChecksums checksums = new BlockChecksums(PackedHistoryFormat.CHECKSUM_BLOCK_SIZE);
+
+        try (HistoryFileWriter file = new HistoryFileWriter(Paths.get(filename))) {
+            PackedHistoryFormat.writeHeader(file, header);
+
+            long word = 0;
+            int filled = 0;
+            while (cursor.next()) {
+                long code = ((long) cursor.from() << bitsPerPeg) | cursor.to();
+                word |= code << (filled * header.bitsPerMove);
+                if (++filled == movesPerWord) {
+                    file.writeLong(word);
+                    checksums.updateLong(word);
+                    word = 0;
+                    filled = 0;
+                }
+            }
+            if (filled > 0) {
+                file.writeLong(word);
+                checksums.updateLong(word);
+            }
+            PackedHistoryFormat.writeFooter(file, header, checksums);
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
+        }
+
+        register(filename, HistoryCatalog.FORMAT_PACKED, discCount, numberOfPegs, header.moveCount, header.minimumMoves);
+        return filename;
+    }
+
+    /**
+     * Guarda un registro de movimientos en el formato v2 comprimido por bloques
+     * Cada bloque se descomprime por separado, así que se sigue pudiendo acceder
+     * a cualquier movimiento (ver openCompressedHistory)
+     * @param moveLog Registro empaquetado del juego
+     * @return Nombre del archivo guardado
+     * @throws IOException Si hay error en la escritura
+     */
+    public String saveHistoryToCompressedBinary(MoveLog moveLog) throws IOException {
+        String filename = createFilename(moveLog.getNumberOfDiscs(), FILE_EXTENSION);
+        PackedHistoryFormat.Header header = packedHeader(moveLog.getNumberOfDiscs(),
+                moveLog.getNumberOfPegs(), moveLog.size(), CompressedHistory.BLOCK_WORDS);
+
+        try (HistoryFileWriter file = new HistoryFileWriter(Paths.get(filename))) {
+            lastCompressedWrite = CompressedHistory.write(file, header, moveLog);
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
         }
 
+        register(filename, HistoryCatalog.FORMAT_COMPRESSED, header.discCount, header.numberOfPegs,
+                header.moveCount, header.minimumMoves);
         return filename;
     }
 
+    /**
+     * Crea la cabecera v2 de un historial sin comprimir
+     */
+    private PackedHistoryFormat.Header packedHeader(int discCount, int numberOfPegs, long moveCount) {
+        return packedHeader(discCount, numberOfPegs, moveCount, 0);
+    }
+
+    /**
+     * Crea la cabecera v2 de un historial
+     * @param blockWords Palabras por bloque comprimido (0 = sin comprimir)
+     */
+    private PackedHistoryFormat.Header packedHeader(int discCount, int numberOfPegs, long moveCount, int blockWords) {
+        return new PackedHistoryFormat.Header(PackedHistoryFormat.VERSION, numberOfPegs,
+                MoveLog.bitsPerMoveFor(numberOfPegs), discCount, System.currentTimeMillis(),
+                moveCount, HanoiGame.minimumMovesFor(discCount, numberOfPegs), blockWords);
+    }
+
     /**
      * Guarda el historial de movimientos en archivo de texto
      * @param moveHistory Lista de movimientos
@@ -80,68 +260,166 @@ public class Aux {
      * @return Nombre del archivo guardado
      * @throws IOException Si hay error en la escritura
      */
-    public String saveHistoryToText(List<String> moveHistory, int discCount, int totalMoves, String gameState) throws IOException {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = HISTORY_DIRECTORY + File.separator +
-                "hanoi_" + discCount + "discos_" + timestamp + TEXT_EXTENSION;
+    public String saveHistoryToText(List<String> moveHistory, int discCount, long totalMoves, String gameState) throws IOException {
+        String filename = createFilename(discCount, TEXT_EXTENSION);
+
+        long minimumMoves = HanoiGame.minimumMovesFor(discCount);
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            // Escribir cabecera
-            writer.write("=== TORRES DE HANOI - HISTORIAL DE SIMULACIÓN ===\n");
-            writer.write("Fecha: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) + "\n");
-            writer.write("Número de discos: " + discCount + "\n");
-            writer.write("Total de movimientos: " + totalMoves + "\n");
-            writer.write("Movimientos mínimos: " + ((int) Math.pow(2, discCount) - 1) + "\n");
-            writer.write("Eficiencia: " + (totalMoves == (int) Math.pow(2, discCount) - 1 ? "ÓPTIMA" : "NO ÓPTIMA") + "\n");
-            writer.write("================================================\n\n");
+            writeTextHeader(writer, discCount, 3, totalMoves, minimumMoves);
 
             // Escribir historial de movimientos
-            writer.write("HISTORIAL DE MOVIMIENTOS:\n");
-            writer.write("------------------------\n");
             for (String move : moveHistory) {
                 writer.write(move + "\n");
             }
+            writeTextFooter(writer, gameState);
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
+        }
 
-            // Escribir estado final del juego
-            writer.write("\nESTADO FINAL DEL JUEGO:\n");
-            writer.write("----------------------\n");
-            writer.write(gameState);
+        register(filename, HistoryCatalog.FORMAT_TEXT, discCount, 3, totalMoves, minimumMoves);
+        return filename;
+    }
+
+    /**
+     * Guarda en archivo de texto un historial recorrido con un cursor
+     * @param cursor Cursor sobre los movimientos
+     * @param towerNames Nombres de las torres por índice
+     * @param discCount Número de discos del juego
+     * @param gameState Estado final del juego
+     * @return Nombre del archivo guardado
+     * @throws IOException Si hay error en la escritura
+     */
+    public String saveHistoryToText(MoveCursor cursor, String[] towerNames, int discCount, String gameState) throws IOException {
+        String filename = createFilename(discCount, TEXT_EXTENSION);
+        long totalMoves = cursor.size();
+        long minimumMoves = HanoiGame.minimumMovesFor(discCount, towerNames.length);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            writeTextHeader(writer, discCount, towerNames.length, totalMoves, minimumMoves);
+
+            // Escribir historial de movimientos a medida que se recorre
+            while (cursor.next()) {
+                writer.write(describe(cursor, towerNames));
+                writer.write('\n');
+            }
+            writeTextFooter(writer, gameState);
+        } catch (IOException | RuntimeException e) {
+            discardReservedFile(filename, e);
+            throw e;
         }
 
+        register(filename, HistoryCatalog.FORMAT_TEXT, discCount, towerNames.length, totalMoves, minimumMoves);
         return filename;
     }
 
+    /**
+     * Escribe la cabecera de un historial de texto (fecha, discos, torres y eficiencia) hasta el título de los movimientos
+     */
+    private static void writeTextHeader(BufferedWriter writer, int discCount, int numberOfPegs, long totalMoves,
+                                        long minimumMoves) throws IOException {
+        writer.write("=== TORRES DE HANOI - HISTORIAL DE SIMULACIÓN ===\n");
+        writer.write("Fecha: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) + "\n");
+        writer.write("Número de discos: " + discCount + "\n");
+        writer.write("Número de torres: " + numberOfPegs + "\n");
+        writer.write("Total de movimientos: " + totalMoves + "\n");
+        writer.write("Movimientos mínimos: " + minimumMoves + "\n");
+        writer.write("Eficiencia: " + (totalMoves == minimumMoves ? "ÓPTIMA" : "NO ÓPTIMA") + "\n");
+        writer.write("================================================\n\n");
+        writer.write("HISTORIAL DE MOVIMIENTOS:\n");
+        writer.write("------------------------\n");
+    }
+
+    /**
+     * Escribe el pie de un historial de texto: el estado final del juego
+     */
+    private static void writeTextFooter(BufferedWriter writer, String gameState) throws IOException {
+        writer.write("\nESTADO FINAL DEL JUEGO:\n");
+        writer.write("----------------------\n");
+        writer.write(gameState);
+    }
+
+    /**
+     * Genera el nombre de un archivo de historial y lo reserva creándolo vacío
+     * Si ya existe uno con el mismo segundo (guardados seguidos o en segundo plano)
+     * se añade un sufijo numérico en lugar de sobrescribirlo
+     * @param discCount Número de discos
+     * @param extension Extensión del archivo
+     * @return Ruta del archivo dentro del directorio de historial
+     * @throws IOException Si no se puede crear el archivo
+     */
+    private String createFilename(int discCount, String extension) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String base = HISTORY_DIRECTORY + File.separator + "hanoi_" + discCount + "discos_" + timestamp;
+
+        for (int attempt = 0; ; attempt++) {
+            String filename = attempt == 0 ? base + extension : base + "_" + attempt + extension;
+            try {
+                Files.createFile(Paths.get(filename));
+                return filename;
+            } catch (FileAlreadyExistsException e) {
+                // Probar con el siguiente sufijo
+            }
+        }
+    }
+
+    /**
+     * Borra el archivo reservado por createFilename cuando su guardado falla,
+     * para no dejar un historial vacío o a medias. Se llama desde el catch del
+     * try-with-resources, cuando el archivo ya está cerrado
+     * @param filename Archivo reservado
+     * @param cause Error del guardado; un fallo al borrar se le añade como suprimido
+     */
+    private void discardReservedFile(String filename, Exception cause) {
+        try {
+            Files.deleteIfExists(Paths.get(filename));
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Describe el movimiento actual de un cursor
+     * @param cursor Cursor situado sobre un movimiento
+     * @param towerNames Nombres de las torres por índice
+     * @return Texto del movimiento
+     */
+    private String describe(MoveCursor cursor, String[] towerNames) {
+        return HanoiGame.Move.format(cursor.moveNumber(), cursor.disc(),
+                towerNames[cursor.from()], towerNames[cursor.to()]);
+    }
+
     /**
      * Escribe la cabecera del archivo binario
-     * @param file Archivo de acceso aleatorio
+     * @param file Escritor con búfer del archivo
      * @param discCount Número de discos
      * @param totalMoves Total de movimientos
      * @param historySize Tamaño del historial
      * @throws IOException Si hay error en la escritura
      */
-    private void writeHeader(RandomAccessFile file, int discCount, int totalMoves, int historySize) throws IOException {
+    private void writeHeader(HistoryFileWriter file, int discCount, long totalMoves, int historySize) throws IOException {
         // Escribir timestamp
         file.writeLong(System.currentTimeMillis());
 
         // Escribir información del juego
         file.writeInt(discCount);
-        file.writeInt(totalMoves);
+        file.writeInt((int) totalMoves);
         file.writeInt(historySize);
 
-        // Escribir movimientos mínimos
-        file.writeInt((int) Math.pow(2, discCount) - 1);
+        // Escribir movimientos mínimos (saturado: el lector lo recalcula a partir de los discos)
+        file.writeInt((int) Math.min(HanoiGame.minimumMovesFor(discCount), Integer.MAX_VALUE));
     }
 
     /**
-     * Escribe un movimiento en el archivo binario
-     * @param file Archivo de acceso aleatorio
+     * Escribe un movimiento en el archivo binario (longitud + bytes UTF-8)
+     * Se acumula en el búfer del escritor; no genera llamadas al sistema por movimiento
+     * @param file Escritor con búfer del archivo
      * @param move Movimiento a escribir
      * @throws IOException Si hay error en la escritura
      */
-    private void writeMove(RandomAccessFile file, String move) throws IOException {
-        byte[] moveBytes = move.getBytes("UTF-8");
-        file.writeInt(moveBytes.length);  // Escribir longitud del string
-        file.write(moveBytes);            // Escribir el string
+    private void writeMove(HistoryFileWriter file, String move) throws IOException {
+        file.writeLengthPrefixedUtf8(move);
     }
 
     /**
@@ -151,47 +429,268 @@ public class Aux {
      * @throws IOException Si hay error en la lectura
      */
     public GameHistoryData readHistoryFromBinary(String filename) throws IOException {
-        try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
-            // Leer cabecera
-            long timestamp = file.readLong();
-            int discCount = file.readInt();
-            int totalMoves = file.readInt();
-            int historySize = file.readInt();
-            int minimumMoves = file.readInt();
-
-            // Leer movimientos
-            List<String> moveHistory = new ArrayList<>();
+        try (DataInputStream file = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            // Los archivos v2 empiezan con el número mágico; los v1, con el timestamp
+            int first = file.readInt();
+            if (first == PackedHistoryFormat.MAGIC) {
+                return readPackedHistory(file);
+            }
+            if (first == PackedHistoryFormat.COMPRESSED_MAGIC) {
+                return readCompressedHistory(filename);
+            }
+            return readLegacyHistory(file, first);
+        }
+    }
+
+    /**
+     * Abre un historial v2 mapeado en memoria para consultar cualquier movimiento
+     * sin leer el archivo completo
+     * @param filename Nombre del archivo a abrir
+     * @return Historial mapeado; debe cerrarse al terminar
+     * @throws IOException Si el archivo no es v2 o no se puede abrir
+     */
+    public MappedHistory openMappedHistory(String filename) throws IOException {
+        return MappedHistory.open(Paths.get(filename));
+    }
+
+    /**
+     * Abre un historial v2 comprimido para consultar cualquier movimiento
+     * descomprimiendo solo el bloque que lo contiene
+     * @param filename Nombre del archivo a abrir
+     * @return Historial comprimido; debe cerrarse al terminar
+     * @throws IOException Si el archivo no es un historial comprimido o no se puede abrir
+     */
+    public CompressedHistory openCompressedHistory(String filename) throws IOException {
+        return CompressedHistory.open(Paths.get(filename));
+    }
+
+    /**
+     * @return Velocidad de compresión del último historial comprimido guardado, o null si no hay
+     */
+    public CompressedHistory.Throughput getLastCompressedWrite() {
+        return lastCompressedWrite;
+    }
+
+    /**
+     * @return Velocidad de descompresión del último historial comprimido leído, o null si no hay
+     */
+    public CompressedHistory.Throughput getLastCompressedRead() {
+        return lastCompressedRead;
+    }
+
+    /**
+     * Abre un historial v1 con su índice disperso de desplazamientos
+     * El índice (.bin.idx) se construye en una pasada la primera vez y se reutiliza después
+     * @param filename Nombre del archivo v1 a abrir
+     * @return Historial indexado; debe cerrarse al terminar
+     * @throws IOException Si el archivo no se puede leer
+     */
+    public LegacyHistoryIndex openIndexedHistory(String filename) throws IOException {
+        return LegacyHistoryIndex.open(Paths.get(filename));
+    }
+
+    /**
+     * Lee un historial en el formato v1 (movimientos como texto)
+     * @param file Entrada situada tras los 4 primeros bytes
+     * @param timestampHigh Mitad alta del timestamp, ya leída
+     * @return GameHistoryData con la información leída
+     * @throws IOException Si hay error en la lectura
+     */
+    private GameHistoryData readLegacyHistory(DataInputStream file, int timestampHigh) throws IOException {
+        // Leer cabecera
+        long timestamp = ((long) timestampHigh << 32) | (file.readInt() & 0xFFFFFFFFL);
+        int discCount = file.readInt();
+        int totalMoves = file.readInt();
+        int historySize = file.readInt();
+        long minimumMoves = minimumMovesFor(discCount, file.readInt());
+
+        // Leer movimientos
+        List<String> moveHistory = new ArrayList<>();
+        try {
             for (int i = 0; i < historySize; i++) {
                 int moveLength = file.readInt();
                 byte[] moveBytes = new byte[moveLength];
                 file.readFully(moveBytes);
-                moveHistory.add(new String(moveBytes, "UTF-8"));
+                moveHistory.add(new String(moveBytes, StandardCharsets.UTF_8));
+            }
+        } catch (EOFException e) {
+            throw new IOException("El historial está truncado", e);
+        }
+
+        return new GameHistoryData(timestamp, discCount, totalMoves, minimumMoves, moveHistory);
+    }
+
+    /**
+     * Lee un historial en el formato compacto v2 y reconstruye su registro empaquetado
+     * @param file Entrada situada tras el número mágico
+     * @return GameHistoryData con la información leída
+     * @throws IOException Si hay error en la lectura o el archivo está corrupto
+     */
+    private GameHistoryData readPackedHistory(DataInputStream file) throws IOException {
+        PackedHistoryFormat.Header header = PackedHistoryFormat.readHeaderAfterMagic(file, PackedHistoryFormat.MAGIC);
+        MoveLog moveLog = new MoveLog(header.discCount, header.numberOfPegs);
+
+        BlockChecksums checksums = header.hasChecksums()
+                ? new BlockChecksums(PackedHistoryFormat.CHECKSUM_BLOCK_SIZE) : null;
+
+        try {
+            long remaining = header.moveCount;
+            while (remaining > 0) {
+                int moves = (int) Math.min(remaining, header.movesPerWord());
+                long word = file.readLong();
+                if (checksums != null) {
+                    checksums.updateLong(word);
+                }
+                appendWord(moveLog, header, word, moves);
+                remaining -= moves;
+            }
+
+            if (checksums != null) {
+                if (file.readInt() != PackedHistoryFormat.headerChecksum(header)) {
+                    throw new IOException("La cabecera del historial está dañada");
+                }
+                int[] sums = checksums.finish();
+                for (int block = 0; block < sums.length; block++) {
+                    if (file.readInt() != sums[block]) {
+                        throw new IOException("Bloque " + block + " del historial dañado (suma incorrecta)");
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("El historial está truncado", e);
+        }
+
+        return new GameHistoryData(header.timestamp, header.discCount, header.moveCount,
+                header.minimumMoves, moveLog, header.version);
+    }
+
+    /**
+     * Lee un historial v2 comprimido por bloques y reconstruye su registro empaquetado
+     * @param filename Nombre del archivo a leer
+     * @return GameHistoryData con la información leída
+     * @throws IOException Si hay error en la lectura o el archivo está corrupto
+     */
+    private GameHistoryData readCompressedHistory(String filename) throws IOException {
+        try (CompressedHistory history = CompressedHistory.open(Paths.get(filename))) {
+            MoveLog moveLog = new MoveLog(history.getDiscCount(), history.getNumberOfPegs());
+            PackedHistoryFormat.Header header = history.getHeader();
+
+            long remaining = header.moveCount;
+            for (long word = 0; remaining > 0; word++) {
+                int moves = (int) Math.min(remaining, header.movesPerWord());
+                appendWord(moveLog, header, history.wordAt(word), moves);
+                remaining -= moves;
             }
 
-            return new GameHistoryData(timestamp, discCount, totalMoves, minimumMoves, moveHistory);
+            lastCompressedRead = history.getDecodeThroughput();
+            return new GameHistoryData(header.timestamp, header.discCount, header.moveCount,
+                    header.minimumMoves, moveLog, header.version);
         }
     }
 
+    /**
+     * Añade al registro los movimientos de una palabra empaquetada
+     * @param moveLog Registro en reconstrucción
+     * @param header Cabecera del archivo
+     * @param word Palabra leída
+     * @param moves Movimientos válidos en la palabra
+     * @throws IOException Si algún movimiento no corresponde a una torre del juego
+     */
+    private static void appendWord(MoveLog moveLog, PackedHistoryFormat.Header header, long word, int moves) throws IOException {
+        int bitsPerPeg = header.bitsPerMove / 2;
+        long pegMask = (1L << bitsPerPeg) - 1;
+        for (int i = 0; i < moves; i++) {
+            int from = (int) ((word >>> bitsPerPeg) & pegMask);
+            int to = (int) (word & pegMask);
+            if (from >= header.numberOfPegs || to >= header.numberOfPegs) {
+                throw new IOException("Movimiento corrupto en el historial");
+            }
+            moveLog.append(from, to);
+            word >>>= header.bitsPerMove;
+        }
+    }
+
+    /**
+     * Calcula los movimientos mínimos sin desbordamiento
+     * @param discCount Número de discos leído del archivo
+     * @param storedValue Valor almacenado en la cabecera (puede estar saturado)
+     * @return Movimientos mínimos
+     */
+    private static long minimumMovesFor(int discCount, int storedValue) {
+        if (discCount >= 0 && discCount <= HanoiGame.MAX_DISCS) {
+            return HanoiGame.minimumMovesFor(discCount);
+        }
+        return storedValue;
+    }
+
+    /**
+     * Abre el diario de movimientos de la partida en curso
+     * @return Diario con sincronización cada DEFAULT_SYNC_MOVES movimientos o DEFAULT_SYNC_MILLIS ms
+     */
+    public HistoryJournal openJournal() {
+        return new HistoryJournal(Paths.get(HISTORY_DIRECTORY, JOURNAL_FILENAME),
+                HistoryJournal.DEFAULT_SYNC_MOVES, HistoryJournal.DEFAULT_SYNC_MILLIS);
+    }
+
+    /**
+     * Reconstruye la partida que quedó en el diario (por ejemplo, tras un cierre inesperado)
+     * @return Juego recuperado, o null si no hay diario
+     * @throws IOException Si hay error en la lectura
+     */
+    public HanoiGame recoverJournal() throws IOException {
+        return HistoryJournal.recover(Paths.get(HISTORY_DIRECTORY, JOURNAL_FILENAME));
+    }
+
     /**
      * Obtiene la lista de archivos de historial disponibles
+     * Se lee del catálogo; el directorio solo se recorre si el catálogo no está disponible
      * @return Lista de nombres de archivos
      */
     public List<String> getAvailableHistoryFiles() {
+        HistoryCatalog catalog = getCatalog();
+        if (catalog != null) {
+            return catalog.getFilenames();
+        }
+
         List<String> files = new ArrayList<>();
-        Path historyPath = Paths.get(HISTORY_DIRECTORY);
+        for (Path path : listHistoryDirectory()) {
+            files.add(path.getFileName().toString());
+        }
+        return files;
+    }
 
-        if (Files.exists(historyPath)) {
-            try {
-                Files.list(historyPath)
-                        .filter(path -> path.toString().endsWith(FILE_EXTENSION) ||
-                                path.toString().endsWith(TEXT_EXTENSION))
-                        .forEach(path -> files.add(path.getFileName().toString()));
-            } catch (IOException e) {
-                System.err.println("Error al leer archivos de historial: " + e.getMessage());
-            }
+    /**
+     * Busca historiales en el catálogo sin recorrer el directorio
+     * Por ejemplo, todas las soluciones óptimas de 20 discos de la última semana
+     * @param discCount Número de discos, o 0 para cualquiera
+     * @param optimalOnly true para devolver solo soluciones óptimas
+     * @param fromMillis Fecha mínima (incluida, epoch ms)
+     * @param toMillis Fecha máxima (excluida, epoch ms)
+     * @return Metadatos de los historiales encontrados
+     */
+    public List<HistoryCatalog.Entry> findHistories(int discCount, boolean optimalOnly, long fromMillis, long toMillis) {
+        HistoryCatalog catalog = getCatalog();
+        if (catalog == null) {
+            return new ArrayList<>();
         }
+        return catalog.find(discCount, optimalOnly, fromMillis, toMillis);
+    }
 
-        return files;
+    /**
+     * Verifica la integridad de todos los historiales del directorio, en paralelo
+     * @return Resultado de cada archivo y velocidad de la verificación
+     */
+    public HistoryVerifier.Report verifyHistoryDirectory() {
+        return HistoryVerifier.verifyAll(listHistoryDirectory(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Verifica la integridad de un historial
+     * @param filename Nombre del archivo a verificar
+     * @return Resultado de la verificación
+     */
+    public HistoryVerifier.Result verifyHistoryFile(String filename) {
+        return HistoryVerifier.verify(Paths.get(filename));
     }
 
     /**
@@ -200,49 +699,221 @@ public class Aux {
      * @return true si se eliminó correctamente
      */
     public boolean deleteHistoryFile(String filename) {
+        boolean deleted;
         try {
             Path filePath = Paths.get(HISTORY_DIRECTORY, filename);
-            return Files.deleteIfExists(filePath);
+            Files.deleteIfExists(LegacyHistoryIndex.indexPathFor(filePath));
+            deleted = Files.deleteIfExists(filePath);
         } catch (IOException e) {
             System.err.println("Error al eliminar archivo: " + e.getMessage());
             return false;
         }
+
+        // El archivo ya no existe: un fallo del catálogo no cambia el resultado
+        try {
+            HistoryCatalog catalog = getCatalog();
+            if (catalog != null) {
+                catalog.remove(filename);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al actualizar el catálogo de historiales: " + e.getMessage());
+        }
+        return deleted;
     }
 
     /**
      * Limpia todos los archivos de historial antiguos (más de 30 días)
+     * Las fechas se leen del catálogo, sin consultar cada archivo. Es una limpieza
+     * síncrona y sin pausas; la aplicación usa HistoryRetentionService en segundo plano
      * @return Número de archivos eliminados
      */
     public int cleanOldHistoryFiles() {
-        AtomicInteger deletedCount = new AtomicInteger();
+        long thirtyDaysAgo = System.currentTimeMillis() - (30L * 24 * 60 * 60 * 1000);
+        List<String> oldFiles = new ArrayList<>();
+
+        HistoryCatalog catalog = getCatalog();
+        if (catalog != null) {
+            for (HistoryCatalog.Entry entry : catalog.query(entry -> entry.getTimestamp() < thirtyDaysAgo)) {
+                oldFiles.add(entry.getFilename());
+            }
+        } else {
+            for (Path path : listHistoryDirectory()) {
+                try {
+                    if (Files.getLastModifiedTime(path).toMillis() < thirtyDaysAgo) {
+                        oldFiles.add(path.getFileName().toString());
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error al leer la fecha de " + path + ": " + e.getMessage());
+                }
+            }
+        }
+
+        int deletedCount = 0;
+        for (String filename : oldFiles) {
+            if (deleteHistoryFile(filename)) {
+                deletedCount++;
+            }
+        }
+        return deletedCount;
+    }
+
+    /**
+     * Reconstruye el catálogo leyendo la cabecera de cada historial del directorio
+     * Se usa cuando el índice no existe (por ejemplo, con historiales de versiones anteriores)
+     * @return Número de historiales registrados
+     * @throws IOException Si no se puede escribir el catálogo
+     */
+    public int rebuildCatalog() throws IOException {
+        HistoryCatalog catalog = getCatalog();
+        if (catalog == null) {
+            throw new IOException("El catálogo de historiales no está disponible");
+        }
+        return rebuild(catalog);
+    }
+
+    private static int rebuild(HistoryCatalog catalog) throws IOException {
+        List<HistoryCatalog.Entry> entries = new ArrayList<>();
+        for (Path path : listHistoryDirectory()) {
+            try {
+                HistoryCatalog.Entry entry = describeHistoryFile(path);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                System.err.println("Historial ilegible omitido del catálogo: " + path.getFileName());
+            }
+        }
+        entries.sort(Comparator.comparingLong(HistoryCatalog.Entry::getTimestamp));
+        catalog.replaceAll(entries);
+        return entries.size();
+    }
+
+    /**
+     * Obtiene el catálogo compartido, abriéndolo (y reconstruyéndolo si no existía) la primera vez
+     * @return Catálogo, o null si no se puede abrir
+     */
+    private static HistoryCatalog getCatalog() {
+        synchronized (Aux.class) {
+            if (sharedCatalog == null && !catalogUnavailable) {
+                Path path = Paths.get(HISTORY_DIRECTORY, CATALOG_FILENAME);
+                boolean existed = Files.exists(path);
+                try {
+                    sharedCatalog = HistoryCatalog.open(path);
+                    if (!existed) {
+                        rebuild(sharedCatalog);
+                    }
+                } catch (IOException e) {
+                    System.err.println("No se pudo abrir el catálogo de historiales: " + e.getMessage());
+                    catalogUnavailable = true;
+                }
+            }
+            return sharedCatalog;
+        }
+    }
+
+    /**
+     * Registra en el catálogo un historial recién guardado
+     */
+    private void register(String filename, int format, int discCount, int numberOfPegs,
+                          long totalMoves, long minimumMoves) {
+        HistoryCatalog catalog = getCatalog();
+        if (catalog == null) {
+            return;
+        }
+        try {
+            Path file = Paths.get(filename);
+            catalog.add(new HistoryCatalog.Entry(file.getFileName().toString(), format, discCount, numberOfPegs,
+                    totalMoves, minimumMoves, System.currentTimeMillis(), Files.size(file)));
+        } catch (IOException e) {
+            System.err.println("Error al actualizar el catálogo de historiales: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee los metadatos de un historial a partir de su cabecera
+     * @param path Archivo de historial
+     * @return Metadatos, o null si no es un historial
+     * @throws IOException Si hay error en la lectura
+     */
+    private static HistoryCatalog.Entry describeHistoryFile(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long size = Files.size(path);
+
+        if (name.endsWith(TEXT_EXTENSION)) {
+            return describeTextHistory(path, size);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int first = in.readInt();
+            if (first == PackedHistoryFormat.MAGIC || first == PackedHistoryFormat.COMPRESSED_MAGIC) {
+                PackedHistoryFormat.Header header = PackedHistoryFormat.readHeaderAfterMagic(in, first);
+                return new HistoryCatalog.Entry(name, header.isCompressed() ? HistoryCatalog.FORMAT_COMPRESSED
+                        : HistoryCatalog.FORMAT_PACKED, header.discCount, header.numberOfPegs,
+                        header.moveCount, header.minimumMoves, header.timestamp, size);
+            }
+
+            long timestamp = ((long) first << 32) | (in.readInt() & 0xFFFFFFFFL);
+            int discCount = in.readInt();
+            int totalMoves = in.readInt();
+            in.readInt();
+            long minimumMoves = minimumMovesFor(discCount, in.readInt());
+            return new HistoryCatalog.Entry(name, HistoryCatalog.FORMAT_V1, discCount, 3,
+                    totalMoves, minimumMoves, timestamp, size);
+        }
+    }
+
+    /**
+     * Lee los metadatos de la cabecera de un historial de texto
+     * Los historiales anteriores a la línea "Número de torres" son siempre de tres torres
+     */
+    private static HistoryCatalog.Entry describeTextHistory(Path path, long size) throws IOException {
+        int discCount = -1;
+        int numberOfPegs = 3;
+        long totalMoves = -1;
+        long minimumMoves = -1;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            for (int i = 0; i < 9 && (line = reader.readLine()) != null; i++) {
+                if (line.startsWith("Número de discos: ")) {
+                    discCount = Integer.parseInt(line.substring(18).trim());
+                } else if (line.startsWith("Número de torres: ")) {
+                    numberOfPegs = Integer.parseInt(line.substring(18).trim());
+                } else if (line.startsWith("Total de movimientos: ")) {
+                    totalMoves = Long.parseLong(line.substring(22).trim());
+                } else if (line.startsWith("Movimientos mínimos: ")) {
+                    minimumMoves = Long.parseLong(line.substring(21).trim());
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (discCount < 0 || totalMoves < 0 || minimumMoves < 0) {
+            return null;
+        }
+        return new HistoryCatalog.Entry(path.getFileName().toString(), HistoryCatalog.FORMAT_TEXT, discCount, numberOfPegs,
+                totalMoves, minimumMoves, Files.getLastModifiedTime(path).toMillis(), size);
+    }
+
+    /**
+     * Recorre el directorio de historiales (solo archivos .bin y .txt)
+     * @return Rutas de los historiales
+     */
+    private static List<Path> listHistoryDirectory() {
+        List<Path> files = new ArrayList<>();
         Path historyPath = Paths.get(HISTORY_DIRECTORY);
 
         if (Files.exists(historyPath)) {
-            try {
-                long thirtyDaysAgo = System.currentTimeMillis() - (30L * 24 * 60 * 60 * 1000);
-
-                Files.list(historyPath)
-                        .filter(path -> {
-                            try {
-                                return Files.getLastModifiedTime(path).toMillis() < thirtyDaysAgo;
-                            } catch (IOException e) {
-                                return false;
-                            }
-                        })
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                                deletedCount.getAndIncrement();
-                            } catch (IOException e) {
-                                System.err.println("Error al eliminar archivo antiguo: " + e.getMessage());
-                            }
-                        });
+            try (Stream<Path> paths = Files.list(historyPath)) {
+                paths.filter(path -> path.toString().endsWith(FILE_EXTENSION) ||
+                                path.toString().endsWith(TEXT_EXTENSION))
+                        .forEach(files::add);
             } catch (IOException e) {
-                System.err.println("Error al limpiar archivos antiguos: " + e.getMessage());
+                System.err.println("Error al leer archivos de historial: " + e.getMessage());
             }
         }
 
-        return deletedCount.get();
+        return files;
     }
 
     /**
@@ -251,25 +922,68 @@ public class Aux {
     public static class GameHistoryData {
         private final long timestamp;
         private final int discCount;
-        private final int totalMoves;
-        private final int minimumMoves;
-        private final List<String> moveHistory;
-
-        public GameHistoryData(long timestamp, int discCount, int totalMoves,
-                               int minimumMoves, List<String> moveHistory) {
+        private final long totalMoves;
+        private final long minimumMoves;
+        private final MoveLog moveLog;          // Solo en historiales v2 y posteriores
+        private final int formatVersion;        // Versión leída de la cabecera del archivo
+        private List<String> moveHistory;       // En v2 y posteriores se genera al pedirlo
+
+        public GameHistoryData(long timestamp, int discCount, long totalMoves,
+                               long minimumMoves, List<String> moveHistory) {
             this.timestamp = timestamp;
             this.discCount = discCount;
             this.totalMoves = totalMoves;
             this.minimumMoves = minimumMoves;
+            this.moveLog = null;
+            this.formatVersion = 1;
             this.moveHistory = new ArrayList<>(moveHistory);
         }
 
+        public GameHistoryData(long timestamp, int discCount, long totalMoves,
+                               long minimumMoves, MoveLog moveLog, int formatVersion) {
+            this.timestamp = timestamp;
+            this.discCount = discCount;
+            this.totalMoves = totalMoves;
+            this.minimumMoves = minimumMoves;
+            this.moveLog = moveLog;
+            this.formatVersion = formatVersion;
+        }
+
         // Getters
         public long getTimestamp() { return timestamp; }
         public int getDiscCount() { return discCount; }
-        public int getTotalMoves() { return totalMoves; }
-        public int getMinimumMoves() { return minimumMoves; }
-        public List<String> getMoveHistory() { return new ArrayList<>(moveHistory); }
+        public long getTotalMoves() { return totalMoves; }
+        public long getMinimumMoves() { return minimumMoves; }
+        public MoveLog getMoveLog() { return moveLog; }
+        public int getFormatVersion() { return formatVersion; }
+
+        public List<String> getMoveHistory() {
+            if (moveHistory == null) {
+                moveHistory = renderMoveHistory();
+            }
+            return Collections.unmodifiableList(moveHistory);
+        }
+
+        /**
+         * Genera el texto de los movimientos a partir del registro empaquetado
+         */
+        private List<String> renderMoveHistory() {
+            if (moveLog.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("El historial es demasiado grande para una lista");
+            }
+
+            List<String> history = new ArrayList<>((int) moveLog.size());
+            MoveCursor cursor = moveLog.cursor();
+            while (cursor.next()) {
+                history.add(HanoiGame.Move.format(cursor.moveNumber(), cursor.disc(),
+                        towerName(cursor.from()), towerName(cursor.to())));
+            }
+            return history;
+        }
+
+        private static String towerName(int index) {
+            return String.valueOf((char) ('A' + index));
+        }
 
         public String getFormattedDate() {
             return LocalDateTime.ofEpochSecond(timestamp / 1000, 0, ZoneOffset.ofTotalSeconds(ZoneId.systemDefault().getRules().getOffset(Instant.now()).getTotalSeconds()))
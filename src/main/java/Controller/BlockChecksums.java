@@ -0,0 +1,91 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Calcula sumas CRC32C por bloques de tamaño fijo sobre un flujo de datos
+ * Los valores long se acumulan en un búfer intermedio para que CRC32C procese
+ * trozos grandes (su implementación intrínseca es mucho más rápida así)
+ */
+final class BlockChecksums {
+
+    private static final int STAGING_SIZE = 1 << 13;
+
+    private final int blockSize;
+    private final CRC32C crc = new CRC32C();
+    private final byte[] staging = new byte[STAGING_SIZE];
+    private int staged;
+    private long inBlock;
+    private int[] sums = new int[16];
+    private int count;
+
+    /**
+     * @param blockSize Bytes cubiertos por cada suma (múltiplo de 8)
+     */
+    BlockChecksums(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Añade un long en big-endian, como lo escribe HistoryFileWriter
+     * @param value Valor a añadir
+     */
+    void updateLong(long value) {
+        if (staged == STAGING_SIZE) {
+            drain();
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            staging[staged++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Añade un trozo de bytes
+     * @param bytes Datos
+     * @param offset Posición del primer byte
+     * @param length Número de bytes
+     */
+    void update(byte[] bytes, int offset, int length) {
+        drain();
+        while (length > 0) {
+            int n = (int) Math.min(length, blockSize - inBlock);
+            crc.update(bytes, offset, n);
+            offset += n;
+            length -= n;
+            inBlock += n;
+            if (inBlock == blockSize) {
+                closeBlock();
+            }
+        }
+    }
+
+    /**
+     * Cierra el último bloque (aunque esté incompleto) y devuelve todas las sumas
+     * @return Suma de cada bloque en orden
+     */
+    int[] finish() {
+        drain();
+        if (inBlock > 0) {
+            closeBlock();
+        }
+        return Arrays.copyOf(sums, count);
+    }
+
+    private void drain() {
+        if (staged > 0) {
+            int length = staged;
+            staged = 0;
+            update(staging, 0, length);
+        }
+    }
+
+    private void closeBlock() {
+        if (count == sums.length) {
+            sums = Arrays.copyOf(sums, count * 2);
+        }
+        sums[count++] = (int) crc.getValue();
+        crc.reset();
+        inBlock = 0;
+    }
+}
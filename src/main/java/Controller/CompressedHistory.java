@@ -0,0 +1,381 @@
+package Controller;
+
+import Methods.Models.MoveLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Historial v2 comprimido por bloques ("HNOZ")
+ * Las palabras empaquetadas se agrupan en bloques de BLOCK_WORDS palabras y cada bloque
+ * se comprime con Deflate por separado, así que cualquier movimiento se lee
+ * descomprimiendo un solo bloque. Tras los bloques va una tabla con el desplazamiento
+ * de cada uno (long[bloques + 1], el último marca el final de los datos); desde la
+ * versión 3 la siguen int[bloques] con la suma CRC32C de cada bloque comprimido y
+ * un int con la suma de la cabecera, y cada bloque se comprueba antes de descomprimirlo.
+ * Las soluciones óptimas repiten los mismos pares de torres con periodo corto,
+ * por lo que se comprimen varios órdenes de magnitud.
+ * El lector guarda en caché el último bloque descomprimido y no es seguro entre hilos
+ */
+public final class CompressedHistory implements AutoCloseable {
+
+    static final int BLOCK_WORDS = 1 << 16;     // 512 KiB sin comprimir (1M movimientos con 3 torres)
+    static final int LEVEL = Deflater.BEST_COMPRESSION;    // Unas 11 veces más compacto que BEST_SPEED con estos datos
+
+    private final FileChannel channel;
+    private final PackedHistoryFormat.Header header;
+    private final long[] blockOffsets;
+    private final int[] blockChecksums;     // null en archivos v2
+    private final int movesPerWord;
+    private final int bitsPerPeg;
+    private final long pegMask;
+
+    private final Inflater inflater = new Inflater();
+    private final CRC32C crc = new CRC32C();
+    private byte[] compressed = new byte[0];
+    private final ByteBuffer block;
+    private long cachedBlock = -1;
+    private long decodedBytes;
+    private long decodeNanos;
+
+    /**
+     * Velocidad de compresión o descompresión, medida sobre los datos sin comprimir
+     */
+    public static final class Throughput {
+        private final long bytes;
+        private final long elapsedNanos;
+
+        Throughput(long bytes, long elapsedNanos) {
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getBytes() { return bytes; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * @return Bytes sin comprimir procesados por segundo
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return bytes + " bytes, " + String.format("%.1f MB/s", getThroughput() / 1e6);
+        }
+    }
+
+    private CompressedHistory(FileChannel channel, PackedHistoryFormat.Header header, long[] blockOffsets,
+                              int[] blockChecksums) {
+        this.channel = channel;
+        this.header = header;
+        this.blockOffsets = blockOffsets;
+        this.blockChecksums = blockChecksums;
+        this.movesPerWord = header.movesPerWord();
+        this.bitsPerPeg = header.bitsPerMove / 2;
+        this.pegMask = (1L << bitsPerPeg) - 1;
+        this.block = ByteBuffer.allocate(header.blockWords * Long.BYTES);
+    }
+
+    /**
+     * Escribe un registro de movimientos en el formato comprimido por bloques
+     * @param writer Escritor del archivo, situado al inicio
+     * @param header Cabecera con blockWords > 0
+     * @param moveLog Registro cuyas palabras se comprimen
+     * @return Velocidad de compresión (empaquetado, Deflate y escritura de los bloques)
+     * @throws IOException Si hay error en la escritura
+     */
+    static Throughput write(HistoryFileWriter writer, PackedHistoryFormat.Header header, MoveLog moveLog) throws IOException {
+        long blockCount = header.blockCount();
+        if (blockCount >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados bloques para un historial comprimido");
+        }
+
+        PackedHistoryFormat.writeHeader(writer, header);
+        long[] offsets = new long[(int) blockCount + 1];
+        int[] checksums = new int[(int) blockCount];
+        CRC32C crc = new CRC32C();
+        byte[] raw = new byte[header.blockWords * Long.BYTES];
+        ByteBuffer rawBuffer = ByteBuffer.wrap(raw);
+        byte[] output = new byte[raw.length];
+        Deflater deflater = new Deflater(LEVEL);
+
+        long start = System.nanoTime();
+        try {
+            long words = header.wordCount();
+            for (int b = 0; b < blockCount; b++) {
+                offsets[b] = writer.position();
+
+                rawBuffer.clear();
+                long first = (long) b * header.blockWords;
+                long last = Math.min(words, first + header.blockWords);
+                for (long word = first; word < last; word++) {
+                    rawBuffer.putLong(moveLog.wordAt(word));
+                }
+
+                deflater.reset();
+                deflater.setInput(raw, 0, rawBuffer.position());
+                deflater.finish();
+                crc.reset();
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(output);
+                    crc.update(output, 0, length);
+                    writer.write(output, 0, length);
+                }
+                checksums[b] = (int) crc.getValue();
+            }
+            offsets[(int) blockCount] = writer.position();
+        } finally {
+            deflater.end();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (long offset : offsets) {
+            writer.writeLong(offset);
+        }
+        for (int checksum : checksums) {
+            writer.writeInt(checksum);
+        }
+        writer.writeInt(PackedHistoryFormat.headerChecksum(header));
+        return new Throughput(header.dataLength(), elapsed);
+    }
+
+    /**
+     * Abre un historial comprimido para acceso aleatorio
+     * Solo se leen la cabecera y la tabla de bloques
+     * @param path Ruta del archivo
+     * @return Historial comprimido (debe cerrarse)
+     * @throws IOException Si el archivo no tiene este formato, está truncado o su cabecera está dañada
+     */
+    public static CompressedHistory open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer headerBuffer = ByteBuffer.allocate(PackedHistoryFormat.HEADER_SIZE);
+            readFully(channel, headerBuffer, 0);
+            PackedHistoryFormat.Header header = PackedHistoryFormat.readHeader(headerBuffer);
+            if (!header.isCompressed()) {
+                throw new IOException("El historial no está comprimido");
+            }
+
+            long blockCount = header.blockCount();
+            long tableSize = tableLength(header);
+            if (blockCount >= Integer.MAX_VALUE || channel.size() < PackedHistoryFormat.HEADER_SIZE + tableSize) {
+                throw new IOException("El historial está truncado");
+            }
+
+            ByteBuffer table = ByteBuffer.allocate((int) tableSize);
+            long tableStart = channel.size() - tableSize;
+            readFully(channel, table, tableStart);
+            long[] offsets = readOffsets(table, (int) blockCount, tableStart);
+            int[] checksums = null;
+            if (header.hasChecksums()) {
+                checksums = readChecksums(table, (int) blockCount);
+                if (table.getInt((int) tableSize - Integer.BYTES) != PackedHistoryFormat.headerChecksum(header)) {
+                    throw new IOException("La cabecera del historial está dañada");
+                }
+            }
+            return new CompressedHistory(channel, header, offsets, checksums);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param header Cabecera de un historial comprimido
+     * @return Bytes de la tabla de bloques (y de las sumas, si las hay) al final del archivo
+     */
+    static long tableLength(PackedHistoryFormat.Header header) {
+        long blockCount = header.blockCount();
+        long length = (blockCount + 1) * Long.BYTES;
+        if (header.hasChecksums()) {
+            length += (blockCount + 1) * Integer.BYTES;
+        }
+        return length;
+    }
+
+    /**
+     * Lee y valida los desplazamientos de la tabla de bloques
+     * @param table Tabla leída del final del archivo
+     * @param blockCount Número de bloques
+     * @param tableStart Posición de la tabla en el archivo
+     * @return Desplazamiento de cada bloque y del final de los datos
+     * @throws IOException Si los desplazamientos no son coherentes
+     */
+    static long[] readOffsets(ByteBuffer table, int blockCount, long tableStart) throws IOException {
+        long[] offsets = new long[blockCount + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = table.getLong(i * Long.BYTES);
+            if (offsets[i] < PackedHistoryFormat.HEADER_SIZE || (i > 0 && offsets[i] < offsets[i - 1])) {
+                throw new IOException("Tabla de bloques corrupta");
+            }
+        }
+        if (offsets[0] != PackedHistoryFormat.HEADER_SIZE || offsets[blockCount] != tableStart) {
+            throw new IOException("Tabla de bloques corrupta");
+        }
+        return offsets;
+    }
+
+    /**
+     * Lee las sumas de los bloques, que van tras los desplazamientos
+     */
+    static int[] readChecksums(ByteBuffer table, int blockCount) {
+        int[] checksums = new int[blockCount];
+        int start = (blockCount + 1) * Long.BYTES;
+        for (int i = 0; i < blockCount; i++) {
+            checksums[i] = table.getInt(start + i * Integer.BYTES);
+        }
+        return checksums;
+    }
+
+    /**
+     * Obtiene la torre origen de un movimiento
+     * @param index Índice del movimiento (0 = primero)
+     * @return Índice de la torre origen (0 = A)
+     * @throws IOException Si el bloque no se puede leer o descomprimir
+     */
+    public int fromAt(long index) throws IOException {
+        return (int) ((codeAt(index) >>> bitsPerPeg) & pegMask);
+    }
+
+    /**
+     * Obtiene la torre destino de un movimiento
+     * @param index Índice del movimiento (0 = primero)
+     * @return Índice de la torre destino (0 = A)
+     * @throws IOException Si el bloque no se puede leer o descomprimir
+     */
+    public int toAt(long index) throws IOException {
+        return (int) (codeAt(index) & pegMask);
+    }
+
+    /**
+     * Obtiene una palabra de movimientos empaquetados, descomprimiendo su bloque si hace falta
+     * @param word Índice de la palabra
+     * @return Movimientos empaquetados (el primero en los bits bajos)
+     * @throws IOException Si el bloque no se puede leer o descomprimir
+     */
+    public long wordAt(long word) throws IOException {
+        if (word < 0 || word >= header.wordCount()) {
+            throw new IndexOutOfBoundsException("Palabra fuera de rango: " + word);
+        }
+        loadBlock(word / header.blockWords);
+        return block.getLong((int) (word % header.blockWords) * Long.BYTES);
+    }
+
+    private long codeAt(long index) throws IOException {
+        if (index < 0 || index >= header.moveCount) {
+            throw new IndexOutOfBoundsException("Movimiento fuera de rango: " + index);
+        }
+        long word = wordAt(index / movesPerWord);
+        return word >>> ((index % movesPerWord) * header.bitsPerMove);
+    }
+
+    /**
+     * Lee y descomprime un bloque, salvo que sea el que ya está en caché
+     */
+    private void loadBlock(long index) throws IOException {
+        if (index == cachedBlock) {
+            return;
+        }
+
+        cachedBlock = -1;
+        long start = System.nanoTime();
+        int length = (int) (blockOffsets[(int) index + 1] - blockOffsets[(int) index]);
+        if (compressed.length < length) {
+            compressed = new byte[length];
+        }
+        readFully(channel, ByteBuffer.wrap(compressed, 0, length), blockOffsets[(int) index]);
+        if (blockChecksums != null) {
+            crc.reset();
+            crc.update(compressed, 0, length);
+            if ((int) crc.getValue() != blockChecksums[(int) index]) {
+                throw new IOException("Bloque " + index + " corrupto (suma incorrecta)");
+            }
+        }
+
+        long words = Math.min(header.blockWords, header.wordCount() - index * header.blockWords);
+        int expected = (int) words * Long.BYTES;
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        try {
+            int inflated = 0;
+            while (inflated < expected && !inflater.finished()) {
+                int n = inflater.inflate(block.array(), inflated, expected - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != expected) {
+                throw new IOException("Bloque " + index + " incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque " + index + " corrupto", e);
+        }
+        cachedBlock = index;
+        decodedBytes += expected;
+        decodeNanos += System.nanoTime() - start;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("El historial está truncado");
+            }
+            position += read;
+        }
+    }
+
+    // Getters
+    public long size() { return header.moveCount; }
+    public int getDiscCount() { return header.discCount; }
+    public int getNumberOfPegs() { return header.numberOfPegs; }
+    public long getTimestamp() { return header.timestamp; }
+    public long getMinimumMoves() { return header.minimumMoves; }
+    public long getWordCount() { return header.wordCount(); }
+    public int getMovesPerWord() { return movesPerWord; }
+    public int getBlockCount() { return blockOffsets.length - 1; }
+    public boolean hasChecksums() { return blockChecksums != null; }
+    PackedHistoryFormat.Header getHeader() { return header; }
+
+    public boolean isOptimal() {
+        return header.moveCount == header.minimumMoves;
+    }
+
+    /**
+     * @return Bytes de los bloques comprimidos
+     */
+    public long getCompressedSize() {
+        return blockOffsets[blockOffsets.length - 1] - blockOffsets[0];
+    }
+
+    /**
+     * @return Relación entre el tamaño de los datos v2 sin comprimir y el comprimido
+     */
+    public double getCompressionRatio() {
+        long compressedSize = getCompressedSize();
+        return compressedSize == 0 ? 1.0 : (double) header.dataLength() / compressedSize;
+    }
+
+    /**
+     * @return Velocidad de descompresión de los bloques leídos hasta ahora (lectura, suma e Inflate)
+     */
+    public Throughput getDecodeThroughput() {
+        return new Throughput(decodedBytes, decodeNanos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
@@ -1,10 +1,15 @@
 package Controller;
 
+import Methods.Models.HanoiGame;
 import Methods.Models.Listeners;
 import View.Animations;
+import View.PlaybackScheduler;
+import View.UiUpdateCoalescer;
 import View.ScreenView;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+
 /**
  * Controlador principal que orquesta la interacción entre modelo y vista
  * Siguiendo el patrón MVC, solo llama a los métodos de Listeners
@@ -13,6 +18,12 @@ public class Controller {
     private Listeners listeners;
     private ScreenView screen;
     private Animations animations;
+    private PlaybackScheduler playback;
+    private UiUpdateCoalescer uiUpdates;
+    private HistorySaveService historySaver;
+    private HistoryJournal journal;
+    private HistoryRetentionService retention;
+    private Aux aux;
 
     /**
      * Constructor del controlador
@@ -28,8 +39,13 @@ public class Controller {
         // Mostrar la aplicación
         screen.show();
 
-        // Inicializar juego por defecto
-        listeners.initializeGame(3);
+        // Recuperar la partida que quedó a medias en el diario; si no, juego por defecto
+        HanoiGame recovered = recoverGame();
+        if (recovered != null && recovered.getMoveCount() > 0 && !recovered.isGameCompleted()) {
+            listeners.resumeGame(recovered);
+        } else {
+            listeners.initializeGame(3);
+        }
     }
 
     /**
@@ -40,8 +56,23 @@ public class Controller {
         // Crear vista
         screen = new ScreenView(primaryStage);
 
-        // Crear animaciones
+        // Crear animaciones (comparten los rectángulos de los discos con la vista)
         animations = new Animations();
+        animations.setDiscVisuals(screen.getDiscVisuals());
+
+        // Crear el reproductor que aplica los movimientos del motor al ritmo de la interfaz
+        playback = new PlaybackScheduler();
+
+        // Agrupar las actualizaciones de etiquetas, progreso e historial en una por pulso (solo pulsa si hay cambios)
+        uiUpdates = new UiUpdateCoalescer(screen);
+
+        // Crear servicios de persistencia: guardado en segundo plano y diario de movimientos
+        aux = new Aux();
+        historySaver = new HistorySaveService(aux);
+        journal = aux.openJournal();
+
+        // Limpieza periódica de historiales antiguos, solo si se ha configurado una política
+        startRetention();
 
         // Crear listeners del modelo
         listeners = new Listeners();
@@ -49,6 +80,42 @@ public class Controller {
         // Establecer referencias cruzadas
         listeners.setScreen(screen);
         listeners.setAnimations(animations);
+        listeners.setPlayback(playback);
+        listeners.setUiUpdates(uiUpdates);
+        listeners.setHistorySaver(historySaver);
+        listeners.setJournal(journal);
+    }
+
+    /**
+     * Inicia la limpieza de historiales si las propiedades del sistema fijan algún límite
+     * Sin configuración no se borra ningún historial
+     */
+    private void startRetention() {
+        HistoryRetentionService.RetentionPolicy policy;
+        try {
+            policy = HistoryRetentionService.RetentionPolicy.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Política de retención inválida, no se borrarán historiales: " + e.getMessage());
+            return;
+        }
+        if (policy.isUnlimited()) {
+            return;
+        }
+        retention = new HistoryRetentionService(aux, policy, historySaver);
+        retention.start(HistoryRetentionService.DEFAULT_INITIAL_DELAY_MILLIS, HistoryRetentionService.DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * Lee la partida que quedó en el diario de movimientos
+     * @return Juego recuperado, o null si no hay nada que recuperar
+     */
+    private HanoiGame recoverGame() {
+        try {
+            return aux.recoverJournal();
+        } catch (IOException e) {
+            System.err.println("No se pudo recuperar la partida anterior: " + e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -67,6 +134,12 @@ public class Controller {
         // Evento del selector de discos
         screen.getDiscSelector().setOnAction(e -> handleDiscCountChange());
 
+        // Evento del selector de vista (nodos o lienzo)
+        screen.getRendererSelector().setOnAction(e -> handleRendererChange());
+
+        // Evento del deslizador de velocidad
+        screen.getSpeedSlider().valueProperty().addListener((obs, oldValue, newValue) -> handleSpeedChange());
+
         // Evento de cierre de ventana
         screen.getPrimaryStage().setOnCloseRequest(e -> handleApplicationExit());
     }
@@ -98,19 +171,51 @@ public class Controller {
     private void handleDiscCountChange() {
         Integer selectedDiscs = screen.getDiscSelector().getValue();
         if (selectedDiscs != null) {
+            // Antes de crear el juego, para no dibujar como nodos más discos de los que caben
+            screen.fitRendererToDiscCount(selectedDiscs);
             listeners.handleDiscCountChange(selectedDiscs);
         }
     }
 
+    /**
+     * Maneja el cambio de vista entre nodos y lienzo
+     */
+    private void handleRendererChange() {
+        listeners.handleRendererChange(ScreenView.CANVAS_RENDERER.equals(screen.getRendererSelector().getValue()));
+    }
+
+    /**
+     * Maneja el cambio de velocidad de reproducción
+     */
+    private void handleSpeedChange() {
+        listeners.handleSpeedChange(screen.getSelectedSpeed());
+    }
+
     /**
      * Maneja el cierre de la aplicación
      */
     private void handleApplicationExit() {
-        // Detener animaciones si están en curso
+        // Detener la reproducción y las animaciones si están en curso
+        playback.cancel();
+        uiUpdates.stop();
         if (animations.isAnimationInProgress()) {
             animations.stopAllAnimations();
         }
 
+        // Dejar de aceptar guardados; los pendientes terminan en segundo plano
+        if (retention != null) {
+            retention.close();
+        }
+        historySaver.close();
+
+        // Un cierre normal no deja partida que recuperar: se retira el diario
+        try {
+            journal.retire();
+            journal.close();
+        } catch (IOException ex) {
+            System.err.println("Error al retirar el diario de movimientos: " + ex.getMessage());
+        }
+
         // Realizar limpieza si es necesaria
         System.out.println("Cerrando aplicación Torres de Hanoi...");
     }
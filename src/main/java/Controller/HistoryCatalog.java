@@ -0,0 +1,327 @@
+package Controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Catálogo persistente de los historiales guardados
+ * Guarda los metadatos de cada archivo (discos, movimientos, fecha, optimalidad...)
+ * en un índice de solo anexado, de modo que listar o filtrar historiales no
+ * necesita recorrer el directorio ni abrir los archivos. Borrar un historial
+ * añade una lápida; cuando las lápidas superan a las entradas vivas el índice
+ * se reescribe compactado.
+ *
+ * Formato (big-endian):
+ *   int magic ("HCAT") | short versión
+ *   registros: byte tipo | short longitud + nombre UTF-8 |
+ *              (solo ADD) byte formato | int discos | byte torres | long movimientos |
+ *              long mínimos | long timestamp | long tamaño
+ */
+public final class HistoryCatalog {
+
+    static final int MAGIC = 0x48434154;        // "HCAT"
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    // Formatos de archivo registrados
+    public static final int FORMAT_TEXT = 0;
+    public static final int FORMAT_V1 = 1;
+    public static final int FORMAT_PACKED = 2;
+    public static final int FORMAT_COMPRESSED = 3;
+
+    /**
+     * Metadatos de un historial guardado
+     */
+    public static final class Entry {
+        private final String filename;
+        private final int format;
+        private final int discCount;
+        private final int numberOfPegs;
+        private final long totalMoves;
+        private final long minimumMoves;
+        private final long timestamp;
+        private final long fileSize;
+        private long catalogOffset;         // Posición del registro dentro del índice
+
+        public Entry(String filename, int format, int discCount, int numberOfPegs, long totalMoves,
+                     long minimumMoves, long timestamp, long fileSize) {
+            this.filename = filename;
+            this.format = format;
+            this.discCount = discCount;
+            this.numberOfPegs = numberOfPegs;
+            this.totalMoves = totalMoves;
+            this.minimumMoves = minimumMoves;
+            this.timestamp = timestamp;
+            this.fileSize = fileSize;
+        }
+
+        // Getters
+        public String getFilename() { return filename; }
+        public int getFormat() { return format; }
+        public int getDiscCount() { return discCount; }
+        public int getNumberOfPegs() { return numberOfPegs; }
+        public long getTotalMoves() { return totalMoves; }
+        public long getMinimumMoves() { return minimumMoves; }
+        public long getTimestamp() { return timestamp; }
+        public long getFileSize() { return fileSize; }
+        public long getCatalogOffset() { return catalogOffset; }
+
+        public boolean isOptimal() {
+            return totalMoves == minimumMoves;
+        }
+
+        @Override
+        public String toString() {
+            return filename + " (" + discCount + " discos, " + totalMoves + " movimientos"
+                    + (isOptimal() ? ", óptimo)" : ")");
+        }
+    }
+
+    private final Path path;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int tombstones;
+
+    private HistoryCatalog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Abre el catálogo; si el índice no existe se crea vacío
+     * Un registro incompleto al final (por un cierre inesperado) se descarta
+     * @param path Archivo del índice
+     * @return Catálogo cargado en memoria
+     * @throws IOException Si no se puede leer o crear el índice
+     */
+    public static HistoryCatalog open(Path path) throws IOException {
+        HistoryCatalog catalog = new HistoryCatalog(path);
+        if (Files.exists(path)) {
+            catalog.load();
+        } else {
+            catalog.rewrite(Collections.emptyList());
+        }
+        return catalog;
+    }
+
+    /**
+     * Registra un historial (sustituye al anterior con el mismo nombre)
+     * @param entry Metadatos del historial
+     * @throws IOException Si no se puede escribir el índice
+     */
+    public synchronized void add(Entry entry) throws IOException {
+        if (entries.containsKey(entry.filename)) {
+            tombstones++;
+        }
+        entry.catalogOffset = channel.size();
+        append(ADD, entry);
+        entries.put(entry.filename, entry);
+    }
+
+    /**
+     * Quita un historial del catálogo
+     * @param filename Nombre del archivo (sin directorio)
+     * @return true si estaba registrado
+     * @throws IOException Si no se puede escribir el índice
+     */
+    public synchronized boolean remove(String filename) throws IOException {
+        Entry removed = entries.remove(filename);
+        if (removed == null) {
+            return false;
+        }
+        append(REMOVE, removed);
+        tombstones += 2;    // El registro ADD y la propia lápida
+
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > entries.size()) {
+            rewrite(new ArrayList<>(entries.values()));
+        }
+        return true;
+    }
+
+    /**
+     * Sustituye todo el contenido del catálogo (por ejemplo, al reconstruirlo desde el directorio)
+     * @param newEntries Entradas del catálogo
+     * @throws IOException Si no se puede escribir el índice
+     */
+    public synchronized void replaceAll(Collection<Entry> newEntries) throws IOException {
+        rewrite(new ArrayList<>(newEntries));
+    }
+
+    /**
+     * Busca historiales que cumplan una condición, sin tocar el directorio
+     * @param filter Condición sobre los metadatos
+     * @return Entradas que la cumplen, en orden de registro
+     */
+    public synchronized List<Entry> query(Predicate<Entry> filter) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (filter.test(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Busca historiales por número de discos, optimalidad y fecha
+     * @param discCount Número de discos, o 0 para cualquiera
+     * @param optimalOnly true para devolver solo soluciones óptimas
+     * @param fromMillis Fecha mínima (incluida, epoch ms)
+     * @param toMillis Fecha máxima (excluida, epoch ms)
+     * @return Entradas que cumplen los criterios
+     */
+    public List<Entry> find(int discCount, boolean optimalOnly, long fromMillis, long toMillis) {
+        return query(entry -> (discCount == 0 || entry.discCount == discCount)
+                && (!optimalOnly || entry.isOptimal())
+                && entry.timestamp >= fromMillis && entry.timestamp < toMillis);
+    }
+
+    /**
+     * Obtiene los metadatos de un historial
+     * @param filename Nombre del archivo (sin directorio)
+     * @return Entrada, o null si no está registrado
+     */
+    public synchronized Entry get(String filename) {
+        return entries.get(filename);
+    }
+
+    /**
+     * @return Nombres de todos los historiales registrados
+     */
+    public synchronized List<String> getFilenames() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cierra el índice
+     * @throws IOException Si hay error al cerrar
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Lee todo el índice y aplica sus registros en orden
+     */
+    private void load() throws IOException {
+        long validLength = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("El catálogo de historiales no es válido");
+            }
+
+            while (true) {
+                long offset = validLength;
+                int kind = in.read();
+                if (kind < 0) {
+                    break;
+                }
+                byte[] name = new byte[in.readUnsignedShort()];
+                in.readFully(name);
+                String filename = new String(name, StandardCharsets.UTF_8);
+                long length = 1 + Short.BYTES + name.length;
+
+                if (kind == ADD) {
+                    Entry entry = new Entry(filename, in.readUnsignedByte(), in.readInt(), in.readUnsignedByte(),
+                            in.readLong(), in.readLong(), in.readLong(), in.readLong());
+                    entry.catalogOffset = offset;
+                    if (entries.put(filename, entry) != null) {
+                        tombstones++;
+                    }
+                    length += 2 + Integer.BYTES + 4 * Long.BYTES;
+                } else if (kind == REMOVE) {
+                    entries.remove(filename);
+                    tombstones += 2;
+                } else {
+                    break;
+                }
+                validLength += length;
+            }
+        } catch (EOFException e) {
+            // Registro a medias al final: se descarta
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+    }
+
+    /**
+     * Reescribe el índice solo con las entradas dadas, de forma atómica
+     */
+    private void rewrite(List<Entry> newEntries) throws IOException {
+        close();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (HistoryFileWriter writer = new HistoryFileWriter(temp)) {
+            writer.writeInt(MAGIC);
+            writer.writeShort(VERSION);
+            for (Entry entry : newEntries) {
+                entry.catalogOffset = writer.position();
+                ByteBuffer record = encode(ADD, entry);
+                writer.write(record.array(), 0, record.limit());
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        entries.clear();
+        for (Entry entry : newEntries) {
+            entries.put(entry.filename, entry);
+        }
+        tombstones = 0;
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private void append(byte kind, Entry entry) throws IOException {
+        ByteBuffer record = encode(kind, entry);
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    private static ByteBuffer encode(byte kind, Entry entry) {
+        byte[] name = entry.filename.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(1 + Short.BYTES + name.length + 2 + Integer.BYTES + 4 * Long.BYTES);
+        record.put(kind);
+        record.putShort((short) name.length);
+        record.put(name);
+        if (kind == ADD) {
+            record.put((byte) entry.format);
+            record.putInt(entry.discCount);
+            record.put((byte) entry.numberOfPegs);
+            record.putLong(entry.totalMoves);
+            record.putLong(entry.minimumMoves);
+            record.putLong(entry.timestamp);
+            record.putLong(entry.fileSize);
+        }
+        record.flip();
+        return record;
+    }
+}
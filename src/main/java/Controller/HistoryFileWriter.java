@@ -0,0 +1,162 @@
+package Controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritor binario con búfer para los archivos de historial
+ * Acumula los datos en un ByteBuffer directo grande y los envía al FileChannel
+ * en lotes, en lugar de hacer una llamada al sistema por cada entero o cadena.
+ * Usa el mismo orden de bytes (big-endian) que RandomAccessFile
+ */
+class HistoryFileWriter implements AutoCloseable {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;   // 1 MiB por lote
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+
+    /**
+     * Abre (o trunca) el archivo para escritura
+     * @param path Ruta del archivo
+     * @throws IOException Si no se puede abrir
+     */
+    HistoryFileWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Abre (o trunca) el archivo para escritura con un tamaño de búfer dado
+     * @param path Ruta del archivo
+     * @param bufferSize Bytes acumulados antes de cada escritura
+     * @throws IOException Si no se puede abrir
+     */
+    HistoryFileWriter(Path path, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.encoder = StandardCharsets.UTF_8.newEncoder();
+    }
+
+    void writeLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void writeInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void writeShort(int value) throws IOException {
+        ensureRemaining(Short.BYTES);
+        buffer.putShort((short) value);
+    }
+
+    void writeByte(int value) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Escribe un bloque de bytes, directamente al canal si no cabe en el búfer
+     * @param bytes Datos a escribir
+     * @throws IOException Si hay error en la escritura
+     */
+    void write(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Escribe una parte de un array de bytes, directamente al canal si no cabe en el búfer
+     * @param bytes Datos a escribir
+     * @param offset Posición del primer byte
+     * @param length Número de bytes
+     * @throws IOException Si hay error en la escritura
+     */
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.capacity()) {
+            flush();
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+            return;
+        }
+        ensureRemaining(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Escribe una cadena como longitud (int) seguida de sus bytes UTF-8
+     * Codifica directamente en el búfer, sin crear un byte[] intermedio
+     * @param text Cadena a escribir
+     * @throws IOException Si hay error en la escritura
+     */
+    void writeLengthPrefixedUtf8(String text) throws IOException {
+        int maxBytes = Integer.BYTES + text.length() * 3;
+        if (maxBytes > buffer.capacity()) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes);
+            return;
+        }
+
+        ensureRemaining(maxBytes);
+        int lengthPosition = buffer.position();
+        buffer.position(lengthPosition + Integer.BYTES);
+
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(text), buffer, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        encoder.flush(buffer);
+
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+    }
+
+    /**
+     * Envía al canal los datos acumulados
+     * @throws IOException Si hay error en la escritura
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Posición lógica del escritor (bytes escritos más los pendientes en el búfer)
+     * @return Desplazamiento desde el inicio del archivo
+     * @throws IOException Si no se puede consultar el canal
+     */
+    long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package Controller;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.HanoiSolver;
+import Methods.Models.MoveCursor;
+import Methods.Models.MoveLog;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diario de movimientos en disco (write-ahead) para recuperar una partida tras un cierre inesperado
+ * Cada movimiento se añade a un búfer en memoria a medida que ocurre, en un byte
+ * (origen << 4 | destino). Las escrituras se agrupan: el hilo "hanoi-journal-sync"
+ * vuelca el búfer y lo sincroniza con el disco cada syncEveryMoves movimientos o cada
+ * syncEveryMillis milisegundos, lo que ocurra antes, en lugar de una vez por movimiento.
+ * Quien mueve los discos (el hilo de JavaFX) nunca escribe ni espera a una sincronización:
+ * el hilo de sincronización intercambia el búfer lleno por uno vacío y escribe fuera del
+ * cerrojo que usa accept.
+ * Al terminar la partida o cerrar la aplicación con normalidad el diario se retira
+ * (se borra), así que solo queda en disco tras un cierre inesperado.
+ *
+ * Formato (big-endian):
+ *   int magic ("HJNL") | short versión | byte torres | byte reservado | int discos | long timestamp
+ *   byte[] movimientos
+ */
+public final class HistoryJournal implements HanoiSolver.MoveSink, AutoCloseable {
+
+    static final int MAGIC = 0x484A4E4C;        // "HJNL"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int DEFAULT_SYNC_MOVES = 4096;
+    static final long DEFAULT_SYNC_MILLIS = 200;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final Path path;
+    private final int syncEveryMoves;
+    private final ScheduledExecutorService syncTimer;
+
+    // Cerrojo de la escritura en disco; se toma siempre antes que el del objeto
+    private final Object ioLock = new Object();
+
+    // Protegidos por ioLock
+    private FileChannel channel;
+    private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean unforced;
+
+    // Protegidos por this
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean recording;
+    private int unsyncedMoves;
+
+    /**
+     * Constructor del diario
+     * @param path Archivo del diario
+     * @param syncEveryMoves Movimientos como máximo entre sincronizaciones
+     * @param syncEveryMillis Milisegundos como máximo entre sincronizaciones
+     */
+    public HistoryJournal(Path path, int syncEveryMoves, long syncEveryMillis) {
+        if (syncEveryMoves < 1 || syncEveryMillis < 1) {
+            throw new IllegalArgumentException("Los intervalos de sincronización deben ser positivos");
+        }
+        this.path = path;
+        this.syncEveryMoves = syncEveryMoves;
+
+        // Sincroniza los movimientos pendientes aunque no lleguen más (por ejemplo, durante una animación)
+        this.syncTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hanoi-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncTimer.scheduleWithFixedDelay(this::flush, syncEveryMillis, syncEveryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Empieza un diario nuevo para una partida, sustituyendo al anterior
+     * Los movimientos que ya tenga el registro se escriben de inmediato; la
+     * sincronización con el disco se deja al hilo de sincronización
+     * @param moveLog Registro de la partida (vacío si empieza desde cero)
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public void begin(MoveLog moveLog) throws IOException {
+        synchronized (ioLock) {
+            stopRecording();
+            closeChannel();
+            FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+            ByteBuffer out = spare;
+            try {
+                out.putInt(MAGIC);
+                out.putShort(VERSION);
+                out.put((byte) moveLog.getNumberOfPegs());
+                out.put((byte) 0);
+                out.putInt(moveLog.getNumberOfDiscs());
+                out.putLong(System.currentTimeMillis());
+
+                MoveCursor cursor = moveLog.cursor();
+                while (cursor.next()) {
+                    if (!out.hasRemaining()) {
+                        write(opened, out);
+                    }
+                    out.put((byte) (cursor.from() << 4 | cursor.to()));
+                }
+                write(opened, out);
+            } catch (IOException e) {
+                out.clear();
+                opened.close();
+                throw e;
+            }
+
+            channel = opened;
+            unforced = true;
+            synchronized (this) {
+                recording = true;
+            }
+        }
+        requestSync();
+    }
+
+    /**
+     * Añade un movimiento al diario; se llama desde el hilo que mueve los discos
+     * Solo lo añade al búfer en memoria y, cada syncEveryMoves movimientos, avisa
+     * al hilo de sincronización
+     */
+    @Override
+    public void accept(int disc, int from, int to) {
+        boolean due;
+        synchronized (this) {
+            if (!recording) {
+                return;
+            }
+            if (!pending.hasRemaining()) {
+                // El disco va con retraso: se amplía el búfer en lugar de esperar
+                ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            pending.put((byte) (from << 4 | to));
+            due = ++unsyncedMoves == syncEveryMoves;
+        }
+        if (due) {
+            requestSync();
+        }
+    }
+
+    /**
+     * Pide al hilo de sincronización que escriba y sincronice los movimientos pendientes
+     * No espera a que termine
+     */
+    public void requestSync() {
+        try {
+            syncTimer.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // El diario ya está cerrado
+        }
+    }
+
+    /**
+     * Retira el diario: deja de registrar y borra el archivo
+     * Se llama cuando la partida termina o la aplicación se cierra con normalidad,
+     * de modo que solo un cierre inesperado deja una partida que recuperar
+     * @throws IOException Si no se puede borrar el archivo
+     */
+    public void retire() throws IOException {
+        synchronized (ioLock) {
+            stopRecording();
+            closeChannel();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Reconstruye la partida guardada en un diario
+     * Los movimientos se repiten sobre un juego nuevo; la lectura se detiene en el
+     * primer movimiento inválido (por ejemplo, la cola de un archivo dañado)
+     * @param path Archivo del diario
+     * @return Juego en el estado del último movimiento registrado, o null si no hay diario válido
+     * @throws IOException Si hay error en la lectura
+     */
+    public static HanoiGame recover(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return null;
+            }
+            int pegs = in.readUnsignedByte();
+            in.readUnsignedByte();
+            int discs = in.readInt();
+            in.readLong();
+            if (pegs < HanoiGame.MIN_PEGS || pegs > HanoiGame.MAX_PEGS
+                    || discs < HanoiGame.MIN_DISCS || discs > HanoiGame.MAX_DISCS) {
+                return null;
+            }
+
+            HanoiGame game = new HanoiGame(discs, pegs);
+            int move;
+            while ((move = in.read()) >= 0) {
+                if (!game.moveDisc(move >>> 4, move & 0x0F)) {
+                    break;
+                }
+            }
+            return game;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sincroniza el diario y detiene el temporizador; el archivo se conserva
+     * (usar retire antes si no hay nada que recuperar)
+     * La última sincronización la hace el propio hilo de sincronización
+     */
+    @Override
+    public void close() throws IOException {
+        requestSync();
+        syncTimer.shutdown();
+        try {
+            if (!syncTimer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("El diario de movimientos no terminó de sincronizarse");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (ioLock) {
+            stopRecording();
+            closeChannel();
+        }
+    }
+
+    /**
+     * Escribe los movimientos pendientes y fuerza su escritura en el disco
+     * Solo se ejecuta en el hilo de sincronización
+     */
+    private void flush() {
+        synchronized (ioLock) {
+            if (channel == null) {
+                return;
+            }
+
+            // Intercambio de búferes: accept sigue añadiendo al vacío mientras se escribe el lleno
+            ByteBuffer out;
+            synchronized (this) {
+                out = pending;
+                pending = spare;
+                unsyncedMoves = 0;
+            }
+            spare = out;
+
+            try {
+                if (out.position() > 0) {
+                    write(channel, out);
+                    unforced = true;
+                }
+                if (unforced) {
+                    channel.force(false);
+                    unforced = false;
+                }
+            } catch (IOException e) {
+                // Un fallo del diario no debe detener la partida: se deja de registrar
+                System.err.println("Error al sincronizar el diario de movimientos: " + e.getMessage());
+                stopRecording();
+                closeChannel();
+            } finally {
+                out.clear();
+            }
+        }
+    }
+
+    private static void write(FileChannel target, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private synchronized void stopRecording() {
+        recording = false;
+        pending.clear();
+        unsyncedMoves = 0;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario de movimientos: " + e.getMessage());
+            }
+            channel = null;
+        }
+        unforced = false;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,271 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de retención de historiales en segundo plano
+ * Periódicamente elimina los historiales que exceden la política de retención
+ * (antigüedad, espacio total y número de archivos), empezando por los más antiguos.
+ * Los candidatos se eligen con el catálogo, sin recorrer el directorio, y se borran
+ * en lotes con una pausa entre ellos; mientras haya guardados en curso se espera,
+ * para no competir con ellos por el disco.
+ * La retención es opcional: por defecto no se borra ningún historial. Se activa con
+ * las propiedades del sistema hanoi.retention.maxAgeDays, hanoi.retention.maxMegabytes
+ * y hanoi.retention.maxFiles (por ejemplo -Dhanoi.retention.maxAgeDays=30); cada
+ * una fija un límite y las que faltan no limitan nada
+ */
+public class HistoryRetentionService implements AutoCloseable {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    /**
+     * Límites de retención; Long.MAX_VALUE / Integer.MAX_VALUE desactivan cada uno
+     */
+    public static final class RetentionPolicy {
+        public static final RetentionPolicy UNLIMITED = new RetentionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+
+        static final String MAX_AGE_DAYS_PROPERTY = "hanoi.retention.maxAgeDays";
+        static final String MAX_MEGABYTES_PROPERTY = "hanoi.retention.maxMegabytes";
+        static final String MAX_FILES_PROPERTY = "hanoi.retention.maxFiles";
+        private static final long BYTES_PER_MEGABYTE = 1L << 20;
+
+        private final long maxAgeMillis;
+        private final long maxTotalBytes;
+        private final int maxFiles;
+
+        /**
+         * @param maxAgeMillis Antigüedad máxima de un historial
+         * @param maxTotalBytes Espacio máximo ocupado por todos los historiales
+         * @param maxFiles Número máximo de historiales
+         */
+        public RetentionPolicy(long maxAgeMillis, long maxTotalBytes, int maxFiles) {
+            if (maxAgeMillis < 0 || maxTotalBytes < 0 || maxFiles < 0) {
+                throw new IllegalArgumentException("Los límites de retención no pueden ser negativos");
+            }
+            this.maxAgeMillis = maxAgeMillis;
+            this.maxTotalBytes = maxTotalBytes;
+            this.maxFiles = maxFiles;
+        }
+
+        /**
+         * Lee la política de las propiedades del sistema
+         * @return Política configurada, o UNLIMITED si no hay ninguna propiedad
+         * @throws IllegalArgumentException Si alguna propiedad no es un número válido
+         */
+        public static RetentionPolicy fromSystemProperties() {
+            long maxAgeDays = readLimit(MAX_AGE_DAYS_PROPERTY, Long.MAX_VALUE / DAY_MILLIS);
+            long maxMegabytes = readLimit(MAX_MEGABYTES_PROPERTY, Long.MAX_VALUE / BYTES_PER_MEGABYTE);
+            long maxFiles = readLimit(MAX_FILES_PROPERTY, Integer.MAX_VALUE);
+            return new RetentionPolicy(
+                    System.getProperty(MAX_AGE_DAYS_PROPERTY) == null ? Long.MAX_VALUE : maxAgeDays * DAY_MILLIS,
+                    System.getProperty(MAX_MEGABYTES_PROPERTY) == null ? Long.MAX_VALUE : maxMegabytes * BYTES_PER_MEGABYTE,
+                    (int) maxFiles);
+        }
+
+        private static long readLimit(String property, long max) {
+            String value = System.getProperty(property);
+            if (value == null) {
+                return max;
+            }
+            try {
+                long limit = Long.parseLong(value.trim());
+                if (limit < 0) {
+                    throw new IllegalArgumentException("El límite " + property + " no puede ser negativo");
+                }
+                return Math.min(limit, max);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("El límite " + property + " no es un número: " + value);
+            }
+        }
+
+        /**
+         * @return true si la política no limita nada (no hace falta ejecutar el servicio)
+         */
+        public boolean isUnlimited() {
+            return maxAgeMillis == Long.MAX_VALUE && maxTotalBytes == Long.MAX_VALUE && maxFiles == Integer.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            if (isUnlimited()) {
+                return "sin límites";
+            }
+            List<String> limits = new ArrayList<>();
+            if (maxAgeMillis != Long.MAX_VALUE) {
+                limits.add("antigüedad " + maxAgeMillis / DAY_MILLIS + " días");
+            }
+            if (maxTotalBytes != Long.MAX_VALUE) {
+                limits.add("espacio " + maxTotalBytes / BYTES_PER_MEGABYTE + " MB");
+            }
+            if (maxFiles != Integer.MAX_VALUE) {
+                limits.add(maxFiles + " archivos");
+            }
+            return String.join(", ", limits);
+        }
+
+        public long getMaxAgeMillis() { return maxAgeMillis; }
+        public long getMaxTotalBytes() { return maxTotalBytes; }
+        public int getMaxFiles() { return maxFiles; }
+    }
+
+    static final int DEFAULT_BATCH_SIZE = 32;
+    static final long DEFAULT_BATCH_PAUSE_MILLIS = 100;
+    static final long DEFAULT_INITIAL_DELAY_MILLIS = 30L * 1000;   // Tras el arranque de la interfaz
+    static final long DEFAULT_PERIOD_MILLIS = 60L * 60 * 1000;     // Una vez por hora
+
+    private final Aux aux;
+    private final RetentionPolicy policy;
+    private final HistorySaveService saver;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+
+    /**
+     * Constructor con lotes y pausas por defecto
+     * @param aux Gestor de archivos de historial
+     * @param policy Política de retención
+     * @param saver Servicio de guardado con el que no competir, o null
+     */
+    public HistoryRetentionService(Aux aux, RetentionPolicy policy, HistorySaveService saver) {
+        this(aux, policy, saver, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_PAUSE_MILLIS);
+    }
+
+    /**
+     * Constructor del servicio
+     * @param aux Gestor de archivos de historial
+     * @param policy Política de retención
+     * @param saver Servicio de guardado con el que no competir, o null
+     * @param batchSize Archivos borrados por lote
+     * @param batchPauseMillis Pausa entre lotes (y mientras hay guardados en curso)
+     */
+    public HistoryRetentionService(Aux aux, RetentionPolicy policy, HistorySaveService saver,
+                                   int batchSize, long batchPauseMillis) {
+        if (batchSize < 1 || batchPauseMillis < 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo y la pausa no negativa");
+        }
+        this.aux = aux;
+        this.policy = policy;
+        this.saver = saver;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hanoi-history-retention");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Programa la limpieza periódica
+     * @param initialDelayMillis Espera antes de la primera pasada
+     * @param periodMillis Tiempo entre el final de una pasada y el inicio de la siguiente
+     */
+    public void start(long initialDelayMillis, long periodMillis) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Una pasada fallida no debe cancelar las siguientes
+                System.err.println("Error en la limpieza de historiales: " + e.getMessage());
+            }
+        }, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hace una pasada de limpieza en el hilo actual
+     * @return Número de archivos eliminados en esta pasada
+     * @throws InterruptedException Si se interrumpe durante una pausa
+     */
+    public int runOnce() throws InterruptedException {
+        List<HistoryCatalog.Entry> expired = selectExpired(
+                aux.findHistories(0, false, Long.MIN_VALUE, Long.MAX_VALUE), policy, System.currentTimeMillis());
+
+        int deleted = 0;
+        for (int i = 0; i < expired.size(); i++) {
+            if (i > 0 && i % batchSize == 0) {
+                Thread.sleep(batchPauseMillis);
+            }
+            while (saver != null && saver.isBusy()) {
+                Thread.sleep(Math.max(1, batchPauseMillis));
+            }
+
+            HistoryCatalog.Entry entry = expired.get(i);
+            if (aux.deleteHistoryFile(entry.getFilename())) {
+                reclaimedBytes.addAndGet(entry.getFileSize());
+                deletedFiles.incrementAndGet();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Elige los historiales que exceden la política, del más antiguo al más reciente
+     * @param entries Historiales registrados
+     * @param policy Política de retención
+     * @param now Instante actual (epoch ms)
+     * @return Historiales a eliminar
+     */
+    static List<HistoryCatalog.Entry> selectExpired(List<HistoryCatalog.Entry> entries, RetentionPolicy policy, long now) {
+        List<HistoryCatalog.Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(HistoryCatalog.Entry::getTimestamp));
+
+        long totalBytes = 0;
+        for (HistoryCatalog.Entry entry : sorted) {
+            totalBytes += entry.getFileSize();
+        }
+
+        // Se quitan los más antiguos hasta cumplir los tres límites
+        long oldestAllowed = policy.maxAgeMillis == Long.MAX_VALUE ? Long.MIN_VALUE : now - policy.maxAgeMillis;
+        int remaining = sorted.size();
+        List<HistoryCatalog.Entry> expired = new ArrayList<>();
+        for (HistoryCatalog.Entry entry : sorted) {
+            if (entry.getTimestamp() >= oldestAllowed && remaining <= policy.maxFiles
+                    && totalBytes <= policy.maxTotalBytes) {
+                break;
+            }
+            expired.add(entry);
+            totalBytes -= entry.getFileSize();
+            remaining--;
+        }
+        return expired;
+    }
+
+    /**
+     * @return Bytes liberados desde que se creó el servicio
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /**
+     * @return Archivos eliminados desde que se creó el servicio
+     */
+    public long getDeletedFiles() {
+        return deletedFiles.get();
+    }
+
+    public RetentionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Detiene la limpieza; una pasada en curso se interrumpe en la siguiente pausa
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package Controller;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.MoveLog;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio de guardado asíncrono de historiales
+ * Las escrituras se hacen en un único hilo de escritura con una cola acotada, de modo
+ * que el hilo de JavaFX nunca espera al disco. Los datos se copian en el hilo que
+ * pide el guardado, así que el juego puede reiniciarse mientras se escribe el archivo
+ */
+public class HistorySaveService implements AutoCloseable {
+
+    static final int QUEUE_CAPACITY = 4;    // Guardados pendientes como máximo
+
+    private final Aux aux;
+    private final ThreadPoolExecutor writer;
+
+    /**
+     * Constructor del servicio con el gestor de archivos por defecto
+     */
+    public HistorySaveService() {
+        this(new Aux());
+    }
+
+    /**
+     * Constructor del servicio
+     * @param aux Gestor de archivos de historial
+     */
+    public HistorySaveService(Aux aux) {
+        this.aux = aux;
+        // Hilo no daemon: los guardados pendientes terminan aunque se cierre la ventana
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                task -> new Thread(task, "hanoi-history-writer"));
+    }
+
+    /**
+     * Guarda el historial del juego en el formato binario compacto (v2)
+     * @param game Juego cuyo historial se guarda
+     * @return Futuro con el nombre del archivo creado
+     */
+    public CompletableFuture<String> saveToBinary(HanoiGame game) {
+        MoveLog snapshot = game.getMoveLog().snapshot();
+        return submit(() -> aux.saveHistoryToPackedBinary(snapshot));
+    }
+
+    /**
+     * Guarda el historial del juego como archivo de texto
+     * @param game Juego cuyo historial se guarda
+     * @return Futuro con el nombre del archivo creado
+     */
+    public CompletableFuture<String> saveToText(HanoiGame game) {
+        MoveLog snapshot = game.getMoveLog().snapshot();
+        String[] towerNames = game.getTowerNames();
+        String gameState = game.getVisualRepresentation();
+        return submit(() -> aux.saveHistoryToText(snapshot.cursor(), towerNames,
+                snapshot.getNumberOfDiscs(), gameState));
+    }
+
+    /**
+     * Encola una escritura; si la cola está llena el futuro falla de inmediato
+     * @param save Escritura que devuelve el nombre del archivo
+     * @return Futuro con el resultado de la escritura
+     */
+    private CompletableFuture<String> submit(Callable<String> save) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            writer.execute(() -> {
+                try {
+                    result.complete(save.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new RejectedExecutionException(
+                    writer.isShutdown() ? "El servicio de guardado está cerrado"
+                            : "Hay demasiados guardados pendientes", e));
+        }
+        return result;
+    }
+
+    /**
+     * @return Número de guardados en espera (sin contar el que se está escribiendo)
+     */
+    public int getPendingCount() {
+        return writer.getQueue().size();
+    }
+
+    /**
+     * @return true si hay un guardado escribiéndose o en espera
+     */
+    public boolean isBusy() {
+        return writer.getActiveCount() > 0 || !writer.getQueue().isEmpty();
+    }
+
+    /**
+     * Deja de aceptar guardados; los ya encolados terminan en segundo plano
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+    }
+}
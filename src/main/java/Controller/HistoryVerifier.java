@@ -0,0 +1,348 @@
+package Controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+/**
+ * Verificación de la integridad de los historiales guardados
+ * Los historiales v3 se comprueban con sus sumas CRC32C leyendo el archivo en trozos
+ * grandes, sin decodificar los movimientos, así que la verificación va casi a la
+ * velocidad del disco; varios archivos se verifican en paralelo.
+ * Los formatos sin sumas (v1 y v2) solo admiten comprobaciones estructurales
+ * (cabecera, tamaño y registros completos): si la estructura es correcta se informan
+ * como no verificables, no como correctos. Los de texto no se comprueban
+ */
+public final class HistoryVerifier {
+
+    private static final int READ_SIZE = PackedHistoryFormat.CHECKSUM_BLOCK_SIZE;
+    private static final int LEGACY_BUFFER_SIZE = 1 << 16;
+    private static final int LEGACY_HEADER_SIZE = Long.BYTES + 4 * Integer.BYTES;
+
+    private HistoryVerifier() {
+    }
+
+    /**
+     * Estado de un archivo verificado
+     */
+    public enum Status {
+        OK,             // Sumas correctas
+        CORRUPT,        // Dañado o truncado
+        UNCHECKED       // Sin sumas: solo se comprobó la estructura (v1, v2) o nada (texto)
+    }
+
+    /**
+     * Resultado de verificar un archivo
+     */
+    public static final class Result {
+        private final Path path;
+        private final Status status;
+        private final String message;
+        private final long bytes;
+
+        Result(Path path, Status status, String message, long bytes) {
+            this.path = path;
+            this.status = status;
+            this.message = message;
+            this.bytes = bytes;
+        }
+
+        // Getters
+        public Path getPath() { return path; }
+        public Status getStatus() { return status; }
+        public String getMessage() { return message; }
+        public long getBytes() { return bytes; }
+
+        @Override
+        public String toString() {
+            return path.getFileName() + ": " + status + " (" + message + ")";
+        }
+    }
+
+    /**
+     * Resultado de verificar un conjunto de archivos
+     */
+    public static final class Report {
+        private final List<Result> results;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        Report(List<Result> results, long elapsedNanos) {
+            this.results = Collections.unmodifiableList(results);
+            long total = 0;
+            for (Result result : results) {
+                total += result.bytes;
+            }
+            this.bytes = total;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<Result> getResults() { return results; }
+        public long getBytes() { return bytes; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * @return Archivos dañados o truncados
+         */
+        public List<Result> getCorrupt() {
+            return withStatus(Status.CORRUPT);
+        }
+
+        /**
+         * @return Archivos sin sumas, cuyo contenido no se ha podido verificar
+         */
+        public List<Result> getUnchecked() {
+            return withStatus(Status.UNCHECKED);
+        }
+
+        private List<Result> withStatus(Status status) {
+            List<Result> matching = new ArrayList<>();
+            for (Result result : results) {
+                if (result.status == status) {
+                    matching.add(result);
+                }
+            }
+            return matching;
+        }
+
+        /**
+         * @return Bytes leídos por segundo
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return results.size() + " historiales, " + getCorrupt().size() + " dañados, "
+                    + getUnchecked().size() + " sin verificar, " + String.format("%.1f MB/s", getThroughput() / 1e6);
+        }
+    }
+
+    /**
+     * Verifica varios archivos en paralelo
+     * @param files Archivos a verificar
+     * @param threads Hilos de verificación
+     * @return Resultados en el mismo orden que los archivos
+     */
+    public static Report verifyAll(List<Path> files, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo");
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, files.size())), task -> {
+            Thread thread = new Thread(task, "hanoi-history-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Result>> pending = new ArrayList<>();
+            for (Path file : files) {
+                pending.add(pool.submit(() -> verify(file)));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    results.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new Result(files.get(i), Status.CORRUPT, String.valueOf(e.getCause()), 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return new Report(results, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifica un archivo de historial según su formato
+     * @param path Ruta del archivo
+     * @return Resultado de la verificación
+     */
+    public static Result verify(Path path) {
+        if (path.toString().endsWith(".txt")) {
+            return new Result(path, Status.UNCHECKED, "historial de texto", 0);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES) {
+                return corrupt(path, "archivo vacío o truncado", size);
+            }
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            readFully(channel, magic, 0);
+
+            int first = magic.getInt(0);
+            if (first == PackedHistoryFormat.MAGIC) {
+                return verifyPacked(path, channel);
+            }
+            if (first == PackedHistoryFormat.COMPRESSED_MAGIC) {
+                return verifyCompressed(path, channel);
+            }
+            return verifyLegacy(path, channel);
+        } catch (IOException e) {
+            return corrupt(path, e.getMessage(), 0);
+        }
+    }
+
+    /**
+     * Comprueba un historial sin comprimir: tamaño exacto y, en v3, las sumas de cada bloque
+     */
+    private static Result verifyPacked(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        PackedHistoryFormat.Header header = readHeader(channel);
+        long expected = PackedHistoryFormat.HEADER_SIZE + header.dataLength() + header.footerLength();
+        if (size != expected) {
+            return corrupt(path, size < expected ? "archivo truncado" : "datos sobrantes al final", size);
+        }
+        if (!header.hasChecksums()) {
+            return new Result(path, Status.UNCHECKED, "v2 sin sumas, solo estructura", size);
+        }
+
+        long footerStart = PackedHistoryFormat.HEADER_SIZE + header.dataLength();
+        ByteBuffer footer = ByteBuffer.allocate((int) header.footerLength());
+        readFully(channel, footer, footerStart);
+        if (footer.getInt(0) != PackedHistoryFormat.headerChecksum(header)) {
+            return corrupt(path, "cabecera dañada", size);
+        }
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        long position = PackedHistoryFormat.HEADER_SIZE;
+        for (int block = 0; position < footerStart; block++) {
+            buffer.clear().limit((int) Math.min(READ_SIZE, footerStart - position));
+            readFully(channel, buffer, position);
+            buffer.flip();
+            crc.reset();
+            crc.update(buffer);
+            if ((int) crc.getValue() != footer.getInt((block + 1) * Integer.BYTES)) {
+                return corrupt(path, "bloque " + block + " dañado", size);
+            }
+            position += buffer.limit();
+        }
+        return new Result(path, Status.OK, "sumas correctas", size);
+    }
+
+    /**
+     * Comprueba un historial comprimido: tabla de bloques coherente y, en v3, la suma de cada bloque
+     */
+    private static Result verifyCompressed(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        PackedHistoryFormat.Header header = readHeader(channel);
+        long blockCount = header.blockCount();
+        long tableSize = CompressedHistory.tableLength(header);
+        if (blockCount >= Integer.MAX_VALUE || size < PackedHistoryFormat.HEADER_SIZE + tableSize) {
+            return corrupt(path, "archivo truncado", size);
+        }
+
+        ByteBuffer table = ByteBuffer.allocate((int) tableSize);
+        long tableStart = size - tableSize;
+        readFully(channel, table, tableStart);
+        long[] offsets = CompressedHistory.readOffsets(table, (int) blockCount, tableStart);
+        if (!header.hasChecksums()) {
+            return new Result(path, Status.UNCHECKED, "v2 sin sumas, solo estructura", size);
+        }
+        if (table.getInt((int) tableSize - Integer.BYTES) != PackedHistoryFormat.headerChecksum(header)) {
+            return corrupt(path, "cabecera dañada", size);
+        }
+
+        int[] checksums = CompressedHistory.readChecksums(table, (int) blockCount);
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        for (int block = 0; block < blockCount; block++) {
+            crc.reset();
+            long position = offsets[block];
+            while (position < offsets[block + 1]) {
+                buffer.clear().limit((int) Math.min(READ_SIZE, offsets[block + 1] - position));
+                readFully(channel, buffer, position);
+                buffer.flip();
+                crc.update(buffer);
+                position += buffer.limit();
+            }
+            if ((int) crc.getValue() != checksums[block]) {
+                return corrupt(path, "bloque " + block + " dañado", size);
+            }
+        }
+        return new Result(path, Status.OK, "sumas correctas", size);
+    }
+
+    /**
+     * Comprueba un historial v1 recorriendo sus registros: deben ser tantos como
+     * indica la cabecera y terminar exactamente al final del archivo
+     */
+    private static Result verifyLegacy(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < LEGACY_HEADER_SIZE) {
+            return corrupt(path, "archivo truncado", size);
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(0)), LEGACY_BUFFER_SIZE));
+        in.skipBytes(Long.BYTES + 2 * Integer.BYTES);
+        int historySize = in.readInt();
+        in.readInt();
+        if (historySize < 0) {
+            return corrupt(path, "cabecera dañada", size);
+        }
+
+        long position = LEGACY_HEADER_SIZE;
+        try {
+            for (int i = 0; i < historySize; i++) {
+                int length = in.readInt();
+                if (length < 0 || position + Integer.BYTES + length > size) {
+                    return corrupt(path, "registro " + i + " dañado o truncado", size);
+                }
+                in.skipNBytes(length);
+                position += Integer.BYTES + length;
+            }
+        } catch (EOFException e) {
+            return corrupt(path, "archivo truncado", size);
+        }
+        if (position != size) {
+            return corrupt(path, "datos sobrantes al final", size);
+        }
+        return new Result(path, Status.UNCHECKED, "v1 sin sumas, solo estructura", size);
+    }
+
+    private static PackedHistoryFormat.Header readHeader(FileChannel channel) throws IOException {
+        if (channel.size() < PackedHistoryFormat.HEADER_SIZE) {
+            throw new IOException("archivo truncado");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(PackedHistoryFormat.HEADER_SIZE);
+        readFully(channel, buffer, 0);
+        return PackedHistoryFormat.readHeader(buffer);
+    }
+
+    private static Result corrupt(Path path, String message, long bytes) {
+        return new Result(path, Status.CORRUPT, message, bytes);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("archivo truncado");
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package Controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice disperso de desplazamientos para historiales v1 (.bin con movimientos como texto)
+ * En v1 cada movimiento es "int longitud + bytes UTF-8", así que no se puede calcular
+ * dónde empieza el movimiento k. El índice guarda el desplazamiento de uno de cada
+ * STRIDE movimientos en un archivo auxiliar (.bin.idx); para leer el movimiento k se
+ * salta al índice más cercano y se decodifican como mucho STRIDE - 1 registros.
+ *
+ * El índice deja de valer si cambia el tamaño o la fecha de modificación del .bin;
+ * entonces se reconstruye.
+ *
+ * Formato del archivo auxiliar (big-endian):
+ *   int magic ("HID2") | int paso | long tamaño del .bin | long modificación del .bin (ms)
+ *   int movimientos | long[] desplazamientos
+ * Los índices con el formato anterior ("HIDX", sin fecha) se consideran desactualizados
+ */
+public final class LegacyHistoryIndex implements AutoCloseable {
+
+    static final int MAGIC = 0x48494432;        // "HID2"
+    static final int DEFAULT_STRIDE = 1024;
+    static final String INDEX_EXTENSION = ".idx";
+
+    // Cabecera v1: timestamp, discos, movimientos, tamaño del historial, mínimos
+    private static final int LEGACY_HEADER_SIZE = Long.BYTES + 4 * Integer.BYTES;
+    private static final int READ_BUFFER_SIZE = 8192;
+    // Cabecera del índice: magic, paso, tamaño, modificación y movimientos
+    private static final int INDEX_HEADER_SIZE = 3 * Integer.BYTES + 2 * Long.BYTES;
+
+    private final FileChannel channel;
+    private final int stride;
+    private final int historySize;
+    private final long[] offsets;
+
+    private LegacyHistoryIndex(FileChannel channel, int stride, int historySize, long[] offsets) {
+        this.channel = channel;
+        this.stride = stride;
+        this.historySize = historySize;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Abre un historial v1 con su índice, construyéndolo si falta o está desactualizado
+     * @param historyFile Archivo .bin v1
+     * @return Historial indexado (debe cerrarse)
+     * @throws IOException Si el archivo no se puede leer
+     */
+    public static LegacyHistoryIndex open(Path historyFile) throws IOException {
+        Path indexFile = indexPathFor(historyFile);
+        if (Files.exists(indexFile)) {
+            LegacyHistoryIndex index = tryLoad(historyFile, indexFile);
+            if (index != null) {
+                return index;
+            }
+        }
+        return build(historyFile, DEFAULT_STRIDE);
+    }
+
+    /**
+     * Recorre el historial una sola vez y escribe su índice auxiliar
+     * @param historyFile Archivo .bin v1
+     * @param stride Cada cuántos movimientos se guarda un desplazamiento
+     * @return Historial indexado (debe cerrarse)
+     * @throws IOException Si el archivo no se puede leer o está truncado
+     */
+    public static LegacyHistoryIndex build(Path historyFile, int stride) throws IOException {
+        if (stride < 1) {
+            throw new IllegalArgumentException("El paso del índice debe ser positivo");
+        }
+
+        FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ);
+        try {
+            // La fecha se toma antes de recorrerlo: un cambio durante el recorrido invalida el índice
+            long sourceModified = Files.getLastModifiedTime(historyFile).toMillis();
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_SIZE));
+            in.skipBytes(Long.BYTES + 2 * Integer.BYTES);
+            int historySize = in.readInt();
+            in.readInt();
+            if (historySize < 0) {
+                throw new IOException("Cabecera de historial corrupta");
+            }
+
+            long[] offsets = new long[offsetCount(historySize, stride)];
+            long position = LEGACY_HEADER_SIZE;
+            for (int i = 0; i < historySize; i++) {
+                if (i % stride == 0) {
+                    offsets[i / stride] = position;
+                }
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Registro corrupto en el movimiento " + i);
+                }
+                skipFully(in, length);
+                position += Integer.BYTES + length;
+            }
+
+            writeIndex(indexPathFor(historyFile), stride, channel.size(), sourceModified, historySize, offsets);
+            return new LegacyHistoryIndex(channel, stride, historySize, offsets);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la ruta del índice auxiliar de un historial
+     * @param historyFile Archivo .bin v1
+     * @return Ruta del archivo .bin.idx
+     */
+    public static Path indexPathFor(Path historyFile) {
+        return historyFile.resolveSibling(historyFile.getFileName() + INDEX_EXTENSION);
+    }
+
+    /**
+     * Lee un movimiento concreto
+     * @param index Índice del movimiento (0 = primero)
+     * @return Texto del movimiento
+     * @throws IOException Si hay error en la lectura
+     */
+    public String moveAt(long index) throws IOException {
+        return readMoves(index, 1).get(0);
+    }
+
+    /**
+     * Lee un rango de movimientos partiendo del desplazamiento indexado más cercano
+     * @param first Índice del primer movimiento
+     * @param count Número de movimientos a leer (se recorta al final del historial)
+     * @return Textos de los movimientos
+     * @throws IOException Si hay error en la lectura
+     */
+    public List<String> readMoves(long first, int count) throws IOException {
+        if (first < 0 || first >= historySize || count < 0) {
+            throw new IndexOutOfBoundsException("Movimiento fuera de rango: " + first);
+        }
+        int start = (int) first;
+        int end = (int) Math.min(historySize, first + count);
+
+        channel.position(offsets[start / stride]);
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_SIZE));
+
+        // Saltar los registros entre el desplazamiento indexado y el primero pedido
+        for (int i = start - start % stride; i < start; i++) {
+            skipFully(in, in.readInt());
+        }
+
+        List<String> moves = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            moves.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return moves;
+    }
+
+    // Getters
+    public int size() { return historySize; }
+    public int getStride() { return stride; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Carga un índice existente si corresponde al historial actual
+     * @return Historial indexado, o null si el índice no es válido
+     */
+    private static LegacyHistoryIndex tryLoad(Path historyFile, Path indexFile) throws IOException {
+        FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexFile), READ_BUFFER_SIZE))) {
+            int stride;
+            int historySize;
+            long[] offsets;
+            try {
+                if (in.readInt() != MAGIC) {
+                    channel.close();
+                    return null;
+                }
+                stride = in.readInt();
+                long sourceLength = in.readLong();
+                long sourceModified = in.readLong();
+                historySize = in.readInt();
+                if (stride < 1 || historySize < 0 || sourceLength != channel.size()
+                        || sourceModified != Files.getLastModifiedTime(historyFile).toMillis()
+                        || INDEX_HEADER_SIZE + (long) offsetCount(historySize, stride) * Long.BYTES
+                                != Files.size(indexFile)) {
+                    channel.close();
+                    return null;
+                }
+                offsets = new long[offsetCount(historySize, stride)];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = in.readLong();
+                }
+            } catch (EOFException e) {
+                channel.close();
+                return null;
+            }
+            return new LegacyHistoryIndex(channel, stride, historySize, offsets);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Número de desplazamientos guardados; se calcula en long para que
+     * historySize + stride no se desborde con pasos grandes
+     */
+    private static int offsetCount(int historySize, int stride) {
+        return (int) (((long) historySize + stride - 1) / stride);
+    }
+
+    private static void writeIndex(Path indexFile, int stride, long sourceLength, long sourceModified,
+                                   int historySize, long[] offsets) throws IOException {
+        try (HistoryFileWriter writer = new HistoryFileWriter(indexFile)) {
+            writer.writeInt(MAGIC);
+            writer.writeInt(stride);
+            writer.writeLong(sourceLength);
+            writer.writeLong(sourceModified);
+            writer.writeInt(historySize);
+            for (long offset : offsets) {
+                writer.writeLong(offset);
+            }
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int bytes) throws IOException {
+        int remaining = bytes;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException("Historial truncado");
+            }
+            remaining -= skipped;
+        }
+    }
+}
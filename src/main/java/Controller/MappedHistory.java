@@ -0,0 +1,133 @@
+package Controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lector de historiales v2 mapeado en memoria
+ * Abrir el archivo solo lee la cabecera; el sistema operativo carga las páginas
+ * a medida que se consultan, así que un historial de varios GB se abre al instante
+ * y cualquier movimiento se lee en O(1) sin recorrer los anteriores.
+ * Los datos se mapean en regiones de REGION_SIZE bytes porque un MappedByteBuffer
+ * no puede superar los 2 GB
+ */
+public final class MappedHistory implements AutoCloseable {
+
+    private static final int REGION_SHIFT = 30;
+    static final long REGION_SIZE = 1L << REGION_SHIFT;     // 1 GiB, múltiplo de 8
+
+    private final FileChannel channel;
+    private final PackedHistoryFormat.Header header;
+    private final MappedByteBuffer[] regions;
+    private final int movesPerWord;
+    private final int bitsPerPeg;
+    private final long pegMask;
+
+    private MappedHistory(FileChannel channel, PackedHistoryFormat.Header header) throws IOException {
+        this.channel = channel;
+        this.header = header;
+        this.movesPerWord = header.movesPerWord();
+        this.bitsPerPeg = header.bitsPerMove / 2;
+        this.pegMask = (1L << bitsPerPeg) - 1;
+
+        long dataLength = header.dataLength();
+        this.regions = new MappedByteBuffer[(int) ((dataLength + REGION_SIZE - 1) >>> REGION_SHIFT)];
+        for (int i = 0; i < regions.length; i++) {
+            long offset = (long) i << REGION_SHIFT;
+            long length = Math.min(REGION_SIZE, dataLength - offset);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    PackedHistoryFormat.HEADER_SIZE + offset, length);
+        }
+    }
+
+    /**
+     * Abre un historial v2 para acceso aleatorio
+     * @param path Ruta del archivo
+     * @return Historial mapeado (debe cerrarse)
+     * @throws IOException Si el archivo no es v2, está truncado o no se puede abrir
+     */
+    public static MappedHistory open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < PackedHistoryFormat.HEADER_SIZE) {
+                throw new IOException("El archivo no tiene el formato de historial empaquetado");
+            }
+            ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, PackedHistoryFormat.HEADER_SIZE);
+            PackedHistoryFormat.Header header = PackedHistoryFormat.readHeader(headerBuffer);
+            if (header.isCompressed()) {
+                throw new IOException("El historial está comprimido; ábralo con CompressedHistory");
+            }
+            if (channel.size() < PackedHistoryFormat.HEADER_SIZE + header.dataLength() + header.footerLength()) {
+                throw new IOException("El historial está truncado");
+            }
+            return new MappedHistory(channel, header);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la torre origen de un movimiento
+     * @param index Índice del movimiento (0 = primero)
+     * @return Índice de la torre origen (0 = A)
+     */
+    public int fromAt(long index) {
+        return (int) ((codeAt(index) >>> bitsPerPeg) & pegMask);
+    }
+
+    /**
+     * Obtiene la torre destino de un movimiento
+     * @param index Índice del movimiento (0 = primero)
+     * @return Índice de la torre destino (0 = A)
+     */
+    public int toAt(long index) {
+        return (int) (codeAt(index) & pegMask);
+    }
+
+    /**
+     * Obtiene una palabra de datos tal como está en el archivo
+     * @param word Índice de la palabra
+     * @return Movimientos empaquetados (el primero en los bits bajos)
+     */
+    public long wordAt(long word) {
+        if (word < 0 || word >= header.wordCount()) {
+            throw new IndexOutOfBoundsException("Palabra fuera de rango: " + word);
+        }
+        long offset = word * Long.BYTES;
+        return regions[(int) (offset >>> REGION_SHIFT)].getLong((int) (offset & (REGION_SIZE - 1)));
+    }
+
+    private long codeAt(long index) {
+        if (index < 0 || index >= header.moveCount) {
+            throw new IndexOutOfBoundsException("Movimiento fuera de rango: " + index);
+        }
+        long word = wordAt(index / movesPerWord);
+        return word >>> ((index % movesPerWord) * header.bitsPerMove);
+    }
+
+    // Getters
+    public long size() { return header.moveCount; }
+    public int getDiscCount() { return header.discCount; }
+    public int getNumberOfPegs() { return header.numberOfPegs; }
+    public long getTimestamp() { return header.timestamp; }
+    public long getMinimumMoves() { return header.minimumMoves; }
+    public int getMovesPerWord() { return movesPerWord; }
+    public long getWordCount() { return header.wordCount(); }
+
+    public boolean isOptimal() {
+        return header.moveCount == header.minimumMoves;
+    }
+
+    /**
+     * Cierra el canal; las regiones mapeadas se liberan cuando el recolector las descarta
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,213 @@
+package Controller;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.MoveLog;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario compacto (v2) de los historiales
+ *
+ * Cabecera de HEADER_SIZE bytes (big-endian):
+ *   int magic ("HNOI" o "HNOZ") | short versión | byte torres | byte bits por movimiento |
+ *   int discos | int palabras por bloque | long timestamp | long movimientos | long mínimos
+ * Datos: los movimientos empaquetados como en MoveLog, en palabras long de ancho fijo;
+ * el movimiento i está en la palabra i / movimientosPorPalabra, así que se puede
+ * acceder a cualquiera sin leer los anteriores.
+ * La variante comprimida ("HNOZ") guarda las mismas palabras en bloques Deflate
+ * independientes de "palabras por bloque" palabras (ver CompressedHistory);
+ * en la variante sin comprimir ese campo vale 0.
+ * Desde la versión 3 de la cabecera el archivo lleva sumas CRC32C: sin comprimir, tras
+ * los datos van int CRC de la cabecera | int[] CRC de cada CHECKSUM_BLOCK_SIZE bytes
+ * de datos; la variante comprimida las guarda junto a su tabla de bloques.
+ * Los archivos con versión 2 (sin sumas) se siguen leyendo
+ */
+final class PackedHistoryFormat {
+
+    static final int MAGIC = 0x484E4F49;                // "HNOI"
+    static final int COMPRESSED_MAGIC = 0x484E4F5A;     // "HNOZ"
+    static final short VERSION = 3;                     // 3 = con sumas CRC32C
+    static final short FIRST_VERSION = 2;
+    static final int CHECKSUM_BLOCK_SIZE = 1 << 20;     // 1 MiB de datos por suma
+    static final int HEADER_SIZE = 40;
+
+    private PackedHistoryFormat() {
+    }
+
+    /**
+     * Cabecera de un historial empaquetado
+     */
+    static final class Header {
+        final short version;
+        final int numberOfPegs;
+        final int bitsPerMove;
+        final int discCount;
+        final long timestamp;
+        final long moveCount;
+        final long minimumMoves;
+        final int blockWords;       // 0 si los datos no están comprimidos
+
+        Header(short version, int numberOfPegs, int bitsPerMove, int discCount,
+               long timestamp, long moveCount, long minimumMoves) {
+            this(version, numberOfPegs, bitsPerMove, discCount, timestamp, moveCount, minimumMoves, 0);
+        }
+
+        Header(short version, int numberOfPegs, int bitsPerMove, int discCount,
+               long timestamp, long moveCount, long minimumMoves, int blockWords) {
+            this.version = version;
+            this.numberOfPegs = numberOfPegs;
+            this.bitsPerMove = bitsPerMove;
+            this.discCount = discCount;
+            this.timestamp = timestamp;
+            this.moveCount = moveCount;
+            this.minimumMoves = minimumMoves;
+            this.blockWords = blockWords;
+        }
+
+        boolean isCompressed() {
+            return blockWords > 0;
+        }
+
+        long blockCount() {
+            return (wordCount() + blockWords - 1) / blockWords;
+        }
+
+        int movesPerWord() {
+            return 64 / bitsPerMove;
+        }
+
+        long wordCount() {
+            return (moveCount + movesPerWord() - 1) / movesPerWord();
+        }
+
+        long dataLength() {
+            return wordCount() * Long.BYTES;
+        }
+
+        boolean hasChecksums() {
+            return version >= 3;
+        }
+
+        long checksumBlockCount() {
+            return (dataLength() + CHECKSUM_BLOCK_SIZE - 1) / CHECKSUM_BLOCK_SIZE;
+        }
+
+        /**
+         * @return Bytes de sumas tras los datos de un historial sin comprimir
+         */
+        long footerLength() {
+            if (!hasChecksums() || isCompressed()) {
+                return 0;
+            }
+            return Integer.BYTES * (1 + checksumBlockCount());
+        }
+    }
+
+    /**
+     * Escribe la cabecera v2 (con el número mágico de la variante que corresponda)
+     * @param writer Escritor del archivo
+     * @param header Cabecera a escribir
+     * @throws IOException Si hay error en la escritura
+     */
+    static void writeHeader(HistoryFileWriter writer, Header header) throws IOException {
+        writer.write(encodeHeader(header));
+    }
+
+    /**
+     * Codifica la cabecera tal como se escribe en el archivo
+     * @param header Cabecera a codificar
+     * @return HEADER_SIZE bytes
+     */
+    static byte[] encodeHeader(Header header) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.putInt(header.isCompressed() ? COMPRESSED_MAGIC : MAGIC);
+        buffer.putShort(header.version);
+        buffer.put((byte) header.numberOfPegs);
+        buffer.put((byte) header.bitsPerMove);
+        buffer.putInt(header.discCount);
+        buffer.putInt(header.blockWords);
+        buffer.putLong(header.timestamp);
+        buffer.putLong(header.moveCount);
+        buffer.putLong(header.minimumMoves);
+        return buffer.array();
+    }
+
+    /**
+     * Calcula la suma CRC32C de la cabecera
+     * @param header Cabecera
+     * @return Suma de los HEADER_SIZE bytes codificados
+     */
+    static int headerChecksum(Header header) {
+        CRC32C crc = new CRC32C();
+        crc.update(encodeHeader(header));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Escribe las sumas de un historial sin comprimir, a continuación de los datos
+     * @param writer Escritor situado al final de los datos
+     * @param header Cabecera del archivo
+     * @param checksums Sumas acumuladas sobre los datos escritos
+     * @throws IOException Si hay error en la escritura
+     */
+    static void writeFooter(HistoryFileWriter writer, Header header, BlockChecksums checksums) throws IOException {
+        writer.writeInt(headerChecksum(header));
+        for (int sum : checksums.finish()) {
+            writer.writeInt(sum);
+        }
+    }
+
+    /**
+     * Lee la cabecera v2 a continuación del número mágico
+     * @param in Entrada situada justo después del magic
+     * @param magic Número mágico ya leído
+     * @return Cabecera leída
+     * @throws IOException Si la cabecera no es válida
+     */
+    static Header readHeaderAfterMagic(DataInput in, int magic) throws IOException {
+        short version = in.readShort();
+        int pegs = in.readUnsignedByte();
+        int bitsPerMove = in.readUnsignedByte();
+        int discCount = in.readInt();
+        int blockWords = in.readInt();
+        return validate(magic, new Header(version, pegs, bitsPerMove, discCount,
+                in.readLong(), in.readLong(), in.readLong(), blockWords));
+    }
+
+    /**
+     * Lee la cabecera v2 desde un buffer (por ejemplo, un archivo mapeado)
+     * @param buffer Buffer situado al inicio del archivo
+     * @return Cabecera leída
+     * @throws IOException Si el archivo no es v2 o la cabecera no es válida
+     */
+    static Header readHeader(ByteBuffer buffer) throws IOException {
+        int magic = buffer.getInt(0);
+        if (magic != MAGIC && magic != COMPRESSED_MAGIC) {
+            throw new IOException("El archivo no tiene el formato de historial empaquetado");
+        }
+        return validate(magic, new Header(buffer.getShort(4), buffer.get(6) & 0xFF, buffer.get(7) & 0xFF,
+                buffer.getInt(8), buffer.getLong(16), buffer.getLong(24), buffer.getLong(32), buffer.getInt(12)));
+    }
+
+    private static Header validate(int magic, Header header) throws IOException {
+        if (header.version < FIRST_VERSION || header.version > VERSION) {
+            throw new IOException("Versión de historial no soportada: " + header.version);
+        }
+        if (header.numberOfPegs < HanoiGame.MIN_PEGS || header.numberOfPegs > HanoiGame.MAX_PEGS
+                || header.moveCount < 0 || header.discCount < 0 || header.discCount > HanoiGame.MAX_DISCS) {
+            throw new IOException("Cabecera de historial corrupta");
+        }
+        // El ancho de cada movimiento lo fija el número de torres; otro valor desalinearía la lectura
+        if (header.bitsPerMove != MoveLog.bitsPerMoveFor(header.numberOfPegs)) {
+            throw new IOException("Cabecera de historial corrupta: " + header.bitsPerMove
+                    + " bits por movimiento con " + header.numberOfPegs + " torres");
+        }
+        if ((magic == COMPRESSED_MAGIC) != header.isCompressed() || header.blockWords < 0) {
+            throw new IOException("Cabecera de historial corrupta");
+        }
+        return header;
+    }
+}
@@ -1,18 +1,16 @@
 package Methods.Models;
 
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-
 /**
  * Clase que representa un disco en el juego de Torres de Hanoi
- * Cada disco tiene un tamaño/valor único y propiedades visuales
+ * Es un modelo puro: tamaño, dimensiones y posición como primitivos, sin JavaFX.
+ * La representación visual vive en View.DiscVisuals
  */
 public class Discs {
     private int size;           // Tamaño del disco (1 = más pequeño)
-    private Color color;        // Color del disco
-    private Rectangle visual;   // Representación visual del disco
-    private double width;       // Ancho visual del disco
-    private double height;      // Alto visual del disco
+    private double width;       // Ancho lógico del disco
+    private double height;      // Alto lógico del disco
+    private double x;           // Coordenada X calculada por la torre
+    private double y;           // Coordenada Y calculada por la torre
     private static final double BASE_WIDTH = 40.0;  // Ancho base
     private static final double DISC_HEIGHT = 20.0; // Alto estándar
 
@@ -24,41 +22,6 @@ public class Discs {
         this.size = size;
         this.height = DISC_HEIGHT;
         this.width = BASE_WIDTH + (size * 30); // Cada tamaño añade 30px de ancho
-        this.color = generateColor(size);
-        createVisualRepresentation();
-    }
-
-    /**
-     * Crea la representación visual del disco
-     */
-    private void createVisualRepresentation() {
-        visual = new Rectangle(width, height);
-        visual.setFill(color);
-        visual.setStroke(Color.BLACK);
-        visual.setStrokeWidth(2);
-        visual.setArcWidth(10);
-        visual.setArcHeight(10);
-    }
-
-    /**
-     * Genera un color único para cada tamaño de disco
-     * @param size Tamaño del disco
-     * @return Color asignado al disco
-     */
-    private Color generateColor(int size) {
-        Color[] colors = {
-                Color.RED,      // Tamaño 1
-                Color.BLUE,     // Tamaño 2
-                Color.GREEN,    // Tamaño 3
-                Color.YELLOW,   // Tamaño 4
-                Color.PURPLE,   // Tamaño 5
-                Color.ORANGE    // Tamaño 6
-        };
-
-        if (size >= 1 && size <= colors.length) {
-            return colors[size - 1];
-        }
-        return Color.GRAY; // Color por defecto
     }
 
     // Getters
@@ -66,14 +29,6 @@ public class Discs {
         return size;
     }
 
-    public Color getColor() {
-        return color;
-    }
-
-    public Rectangle getVisual() {
-        return visual;
-    }
-
     public double getWidth() {
         return width;
     }
@@ -83,13 +38,13 @@ public class Discs {
     }
 
     /**
-     * Establece la posición visual del disco
+     * Establece la posición del disco
      * @param x Coordenada X
      * @param y Coordenada Y
      */
     public void setPosition(double x, double y) {
-        visual.setX(x);
-        visual.setY(y);
+        this.x = x;
+        this.y = y;
     }
 
     /**
@@ -97,7 +52,7 @@ public class Discs {
      * @return Coordenada X
      */
     public double getX() {
-        return visual.getX();
+        return x;
     }
 
     /**
@@ -105,7 +60,7 @@ public class Discs {
      * @return Coordenada Y
      */
     public double getY() {
-        return visual.getY();
+        return y;
     }
 
     /**
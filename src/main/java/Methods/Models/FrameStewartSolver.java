@@ -0,0 +1,124 @@
+package Methods.Models;
+
+/**
+ * Motor de resolución para k torres (puzzle de Reve y variantes) con Frame–Stewart
+ * Para n discos y p torres se mueven los k discos superiores a una torre intermedia
+ * usando las p torres, los n-k restantes al destino con p-1 torres, y de nuevo los k
+ * discos sobre ellos. El mejor k de cada (n, p) se calcula una sola vez en una tabla
+ */
+public class FrameStewartSolver implements HanoiSolver {
+
+    public static final int MAX_PEGS = 8;
+
+    // Tablas memorizadas: movimientos mínimos y punto de división óptimo por (discos, torres)
+    private static final long[][] MOVES = new long[HanoiGame.MAX_DISCS + 1][MAX_PEGS + 1];
+    private static final int[][] SPLIT = new int[HanoiGame.MAX_DISCS + 1][MAX_PEGS + 1];
+
+    static {
+        for (int n = 0; n <= HanoiGame.MAX_DISCS; n++) {
+            MOVES[n][3] = HanoiGame.minimumMovesFor(n);
+            SPLIT[n][3] = n - 1;
+        }
+        for (int p = 4; p <= MAX_PEGS; p++) {
+            for (int n = 1; n <= HanoiGame.MAX_DISCS; n++) {
+                long best = Long.MAX_VALUE;
+                int bestSplit = 0;
+                for (int k = 1; k < n; k++) {
+                    long candidate = saturatedAdd(saturatedAdd(MOVES[k][p], MOVES[k][p]), MOVES[n - k][p - 1]);
+                    if (candidate < best) {
+                        best = candidate;
+                        bestSplit = k;
+                    }
+                }
+                MOVES[n][p] = n == 1 ? 1 : best;
+                SPLIT[n][p] = bestSplit;
+            }
+        }
+    }
+
+    @Override
+    public void solve(int numberOfDiscs, MoveSink sink) {
+        solve(numberOfDiscs, 3, sink);
+    }
+
+    @Override
+    public void solve(int numberOfDiscs, int numberOfPegs, MoveSink sink) {
+        checkArguments(numberOfDiscs, numberOfPegs);
+        if (numberOfDiscs == 0) {
+            return;
+        }
+
+        // Torres libres como máscara: todas menos el origen (0) y el destino (p - 1)
+        int free = ((1 << numberOfPegs) - 1) & ~1 & ~(1 << (numberOfPegs - 1));
+        move(numberOfDiscs, 0, 0, numberOfPegs - 1, free, sink);
+    }
+
+    /**
+     * Mueve los discos (offset + 1)..(offset + n) de una torre a otra
+     * @param n Número de discos a mover
+     * @param offset Tamaño del disco inmediatamente menor que el grupo (0 si incluye el disco 1)
+     * @param from Torre origen
+     * @param to Torre destino
+     * @param free Máscara de torres auxiliares disponibles
+     * @param sink Receptor de movimientos
+     */
+    private void move(int n, int offset, int from, int to, int free, MoveSink sink) {
+        if (n == 0) {
+            return;
+        }
+        if (n == 1) {
+            sink.accept(offset + 1, from, to);
+            return;
+        }
+
+        int pegs = Integer.bitCount(free) + 2;
+        if (pegs < 3) {
+            throw new IllegalStateException("No hay torres auxiliares para mover " + n + " discos");
+        }
+
+        // Los k discos superiores van a una torre intermedia usando todas las torres
+        int k = SPLIT[n][Math.min(pegs, MAX_PEGS)];
+        int intermediate = Integer.numberOfTrailingZeros(free);
+        int remaining = free & ~(1 << intermediate);
+
+        move(k, offset, from, intermediate, remaining | (1 << to), sink);
+        move(n - k, offset + k, from, to, remaining, sink);
+        move(k, offset, intermediate, to, remaining | (1 << from), sink);
+    }
+
+    /**
+     * Obtiene el número de movimientos de la solución de Frame–Stewart
+     * @param numberOfDiscs Número de discos
+     * @param numberOfPegs Número de torres (3-8)
+     * @return Movimientos de la solución (2^n - 1 con tres torres)
+     */
+    public static long minimumMoves(int numberOfDiscs, int numberOfPegs) {
+        checkArguments(numberOfDiscs, numberOfPegs);
+        return MOVES[numberOfDiscs][numberOfPegs];
+    }
+
+    /**
+     * Obtiene el número óptimo de discos que se apartan en el primer paso
+     * @param numberOfDiscs Número de discos
+     * @param numberOfPegs Número de torres (3-8)
+     * @return Punto de división k
+     */
+    public static int optimalSplit(int numberOfDiscs, int numberOfPegs) {
+        checkArguments(numberOfDiscs, numberOfPegs);
+        return SPLIT[numberOfDiscs][numberOfPegs];
+    }
+
+    private static void checkArguments(int numberOfDiscs, int numberOfPegs) {
+        if (numberOfDiscs < 0 || numberOfDiscs > HanoiGame.MAX_DISCS) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 0 y " + HanoiGame.MAX_DISCS);
+        }
+        if (numberOfPegs < 3 || numberOfPegs > MAX_PEGS) {
+            throw new IllegalArgumentException("El número de torres debe estar entre 3 y " + MAX_PEGS);
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
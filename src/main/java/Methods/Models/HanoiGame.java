@@ -6,19 +6,33 @@ import java.util.function.Consumer;
 
 /**
  * Clase principal que controla la lógica del juego Torres de Hanoi
- * Maneja las torres, discos y el algoritmo recursivo de resolución
+ * Maneja las torres, discos y el motor de resolución automática
  */
 public class HanoiGame {
-    private Tower[] towers;                    // Array de torres [A, B, C]
+    private Tower[] towers;                    // Array de torres [A, B, C, ...]
     private int numberOfDiscs;                 // Número de discos en el juego
-    private List<String> moveHistory;          // Historial de movimientos
-    private int moveCount;                     // Contador de movimientos
+    private MoveLog moveLog;                   // Historial compacto de movimientos
+    private long moveCount;                    // Contador de movimientos
     private boolean gameCompleted;             // Estado del juego
     private boolean gameInProgress;            // Si hay una simulación en curso
 
     // Callback para notificar movimientos a la vista
     private Consumer<Move> moveCallback;
 
+    // Receptor primitivo de movimientos (por ejemplo, el diario en disco)
+    private HanoiSolver.MoveSink moveListener;
+
+    // Motor que genera la secuencia de movimientos de la solución
+    private HanoiSolver solver;
+
+    // Límites del número de discos (las máscaras de bits usan un long)
+    public static final int MIN_DISCS = 1;
+    public static final int MAX_DISCS = 63;
+
+    // Límites del número de torres (variantes de Reve con 4 o más torres)
+    public static final int MIN_PEGS = 3;
+    public static final int MAX_PEGS = FrameStewartSolver.MAX_PEGS;
+
     // Posiciones de las torres en pantalla
     private static final double TOWER_SPACING = 250.0;
     private static final double FIRST_TOWER_X = 100.0;
@@ -31,9 +45,9 @@ public class HanoiGame {
         private final String from;
         private final String to;
         private final Discs disc;
-        private final int moveNumber;
+        private final long moveNumber;
 
-        public Move(String from, String to, Discs disc, int moveNumber) {
+        public Move(String from, String to, Discs disc, long moveNumber) {
             this.from = from;
             this.to = to;
             this.disc = disc;
@@ -44,42 +58,71 @@ public class HanoiGame {
         public String getFrom() { return from; }
         public String getTo() { return to; }
         public Discs getDisc() { return disc; }
-        public int getMoveNumber() { return moveNumber; }
+        public long getMoveNumber() { return moveNumber; }
 
         @Override
         public String toString() {
+            return format(moveNumber, disc.getSize(), from, to);
+        }
+
+        /**
+         * Da formato de texto a un movimiento
+         * @param moveNumber Número de movimiento
+         * @param discSize Tamaño del disco movido
+         * @param from Nombre de la torre origen
+         * @param to Nombre de la torre destino
+         * @return Descripción del movimiento
+         */
+        public static String format(long moveNumber, int discSize, String from, String to) {
             return String.format("Movimiento %d: Disco %d de Torre %s a Torre %s",
-                    moveNumber, disc.getSize(), from, to);
+                    moveNumber, discSize, from, to);
         }
     }
 
     /**
      * Constructor del juego
-     * @param numberOfDiscs Número de discos (3-6)
+     * @param numberOfDiscs Número de discos (1-63)
      */
     public HanoiGame(int numberOfDiscs) {
-        if (numberOfDiscs < 3 || numberOfDiscs > 6) {
-            throw new IllegalArgumentException("El número de discos debe estar entre 3 y 6");
+        this(numberOfDiscs, MIN_PEGS);
+    }
+
+    /**
+     * Constructor del juego con un número de torres dado
+     * @param numberOfDiscs Número de discos (1-63)
+     * @param numberOfPegs Número de torres (3-8); el destino es la última
+     */
+    public HanoiGame(int numberOfDiscs, int numberOfPegs) {
+        if (numberOfDiscs < MIN_DISCS || numberOfDiscs > MAX_DISCS) {
+            throw new IllegalArgumentException("El número de discos debe estar entre "
+                    + MIN_DISCS + " y " + MAX_DISCS);
+        }
+        if (numberOfPegs < MIN_PEGS || numberOfPegs > MAX_PEGS) {
+            throw new IllegalArgumentException("El número de torres debe estar entre "
+                    + MIN_PEGS + " y " + MAX_PEGS);
         }
 
         this.numberOfDiscs = numberOfDiscs;
-        this.moveHistory = new ArrayList<>();
         this.moveCount = 0;
         this.gameCompleted = false;
         this.gameInProgress = false;
+        this.solver = numberOfPegs == 3 ? new IterativeSolver() : new FrameStewartSolver();
 
-        initializeTowers();
+        initializeTowers(numberOfPegs);
+        this.moveLog = new MoveLog(numberOfDiscs, towers.length);
         initializeDiscs();
     }
 
     /**
-     * Inicializa las tres torres en sus posiciones
+     * Inicializa las torres en sus posiciones, nombradas A, B, C, D...
+     * @param numberOfPegs Número de torres
      */
-    private void initializeTowers() {
-        towers = new Tower[3];
-        towers[0] = new Tower("A", FIRST_TOWER_X, TOWER_Y, numberOfDiscs);
-        towers[1] = new Tower("B", FIRST_TOWER_X + TOWER_SPACING, TOWER_Y, numberOfDiscs);
-        towers[2] = new Tower("C", FIRST_TOWER_X + (TOWER_SPACING * 2), TOWER_Y, numberOfDiscs);
+    private void initializeTowers(int numberOfPegs) {
+        towers = new Tower[numberOfPegs];
+        for (int i = 0; i < numberOfPegs; i++) {
+            String name = String.valueOf((char) ('A' + i));
+            towers[i] = new Tower(name, FIRST_TOWER_X + (TOWER_SPACING * i), TOWER_Y, numberOfDiscs);
+        }
     }
 
     /**
@@ -106,7 +149,7 @@ public class HanoiGame {
         initializeDiscs();
 
         // Limpiar historial
-        moveHistory.clear();
+        moveLog.clear();
         moveCount = 0;
         gameCompleted = false;
         gameInProgress = false;
@@ -120,6 +163,26 @@ public class HanoiGame {
         this.moveCallback = callback;
     }
 
+    /**
+     * Establece un receptor primitivo que recibe cada movimiento realizado
+     * A diferencia del callback no crea objetos por movimiento
+     * @param listener Receptor de (disco, torre origen, torre destino), o null para quitarlo
+     */
+    public void setMoveListener(HanoiSolver.MoveSink listener) {
+        this.moveListener = listener;
+    }
+
+    /**
+     * Establece el motor de resolución usado por startAutoSolution
+     * @param solver Motor de resolución (no nulo)
+     */
+    public void setSolver(HanoiSolver solver) {
+        if (solver == null) {
+            throw new IllegalArgumentException("El motor de resolución no puede ser nulo");
+        }
+        this.solver = solver;
+    }
+
     /**
      * Inicia la resolución automática del juego
      */
@@ -131,36 +194,13 @@ public class HanoiGame {
         gameInProgress = true;
         gameCompleted = false;
 
-        // Resolver usando algoritmo recursivo
-        solveHanoi(numberOfDiscs, towers[0], towers[2], towers[1]);
+        // Resolver aplicando cada movimiento generado por el motor
+        solver.solve(numberOfDiscs, towers.length, (disc, from, to) -> moveDisc(towers[from], towers[to]));
 
         gameCompleted = true;
         gameInProgress = false;
     }
 
-    /**
-     * Algoritmo recursivo para resolver las Torres de Hanoi
-     * @param n Número de discos a mover
-     * @param source Torre origen
-     * @param destination Torre destino
-     * @param auxiliary Torre auxiliar
-     */
-    private void solveHanoi(int n, Tower source, Tower destination, Tower auxiliary) {
-        if (n == 1) {
-            // Caso base: mover un solo disco
-            moveDisc(source, destination);
-        } else {
-            // Paso 1: Mover n-1 discos de origen a auxiliar
-            solveHanoi(n - 1, source, auxiliary, destination);
-
-            // Paso 2: Mover el disco más grande a destino
-            moveDisc(source, destination);
-
-            // Paso 3: Mover n-1 discos de auxiliar a destino
-            solveHanoi(n - 1, auxiliary, destination, source);
-        }
-    }
-
     /**
      * Mueve un disco de una torre a otra
      * @param from Torre origen
@@ -182,13 +222,18 @@ public class HanoiGame {
         if (disc != null && to.pushDisc(disc)) {
             moveCount++;
 
-            // Crear registro del movimiento
-            Move move = new Move(from.getName(), to.getName(), disc, moveCount);
-            moveHistory.add(move.toString());
+            // Registrar el movimiento empaquetado; el texto se genera solo si se pide
+            int fromIndex = indexOf(from);
+            int toIndex = indexOf(to);
+            moveLog.append(fromIndex, toIndex);
+
+            if (moveListener != null) {
+                moveListener.accept(disc.getSize(), fromIndex, toIndex);
+            }
 
             // Notificar a la vista si hay callback
             if (moveCallback != null) {
-                moveCallback.accept(move);
+                moveCallback.accept(new Move(from.getName(), to.getName(), disc, moveCount));
             }
 
             return true;
@@ -203,8 +248,8 @@ public class HanoiGame {
 
     /**
      * Mueve un disco especificando las torres por nombre
-     * @param fromName Nombre de torre origen ("A", "B", "C")
-     * @param toName Nombre de torre destino ("A", "B", "C")
+     * @param fromName Nombre de torre origen ("A", "B", "C", ...)
+     * @param toName Nombre de torre destino ("A", "B", "C", ...)
      * @return true si el movimiento fue exitoso
      */
     public boolean moveDisc(String fromName, String toName) {
@@ -218,9 +263,37 @@ public class HanoiGame {
         return moveDisc(from, to);
     }
 
+    /**
+     * Mueve un disco especificando las torres por índice
+     * @param fromIndex Índice de la torre origen (0 = A)
+     * @param toIndex Índice de la torre destino (0 = A)
+     * @return true si el movimiento fue exitoso
+     */
+    public boolean moveDisc(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || fromIndex >= towers.length || toIndex < 0 || toIndex >= towers.length) {
+            return false;
+        }
+
+        return moveDisc(towers[fromIndex], towers[toIndex]);
+    }
+
+    /**
+     * Obtiene la posición de una torre en el array de torres
+     * @param tower Torre buscada
+     * @return Índice de la torre, -1 si no pertenece al juego
+     */
+    private int indexOf(Tower tower) {
+        for (int i = 0; i < towers.length; i++) {
+            if (towers[i] == tower) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Obtiene una torre por su nombre
-     * @param name Nombre de la torre ("A", "B", "C")
+     * @param name Nombre de la torre ("A", "B", "C", ...)
      * @return Torre correspondiente o null
      */
     public Tower getTowerByName(String name) {
@@ -234,20 +307,76 @@ public class HanoiGame {
 
     /**
      * Verifica si el juego está completado
-     * @return true si todos los discos están en la torre C
+     * @return true si todos los discos están en la última torre
      */
     public boolean isGameCompleted() {
-        Tower towerC = towers[2];
-        return towerC.getDiscCount() == numberOfDiscs &&
-                towers[0].isEmpty() && towers[1].isEmpty();
+        return getTargetTower().getDiscCount() == numberOfDiscs;
     }
 
     /**
      * Calcula el número mínimo de movimientos para resolver el juego
-     * @return Número mínimo de movimientos (2^n - 1)
+     * @return Número mínimo de movimientos (2^n - 1 con tres torres)
      */
-    public int getMinimumMoves() {
-        return (int) Math.pow(2, numberOfDiscs) - 1;
+    public long getMinimumMoves() {
+        return minimumMovesFor(numberOfDiscs, towers.length);
+    }
+
+    /**
+     * Calcula los movimientos mínimos para cualquier número de torres
+     * Con más de tres torres usa la tabla memorizada de Frame–Stewart
+     * @param numberOfDiscs Número de discos
+     * @param numberOfPegs Número de torres
+     * @return Número mínimo de movimientos
+     */
+    public static long minimumMovesFor(int numberOfDiscs, int numberOfPegs) {
+        if (numberOfPegs == 3) {
+            return minimumMovesFor(numberOfDiscs);
+        }
+        return FrameStewartSolver.minimumMoves(numberOfDiscs, numberOfPegs);
+    }
+
+    /**
+     * Calcula 2^n - 1 sin desbordamiento para cualquier n entre 0 y 63
+     * @param numberOfDiscs Número de discos
+     * @return Número mínimo de movimientos
+     */
+    public static long minimumMovesFor(int numberOfDiscs) {
+        if (numberOfDiscs < 0 || numberOfDiscs > MAX_DISCS) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 0 y " + MAX_DISCS);
+        }
+        return (1L << numberOfDiscs) - 1;
+    }
+
+    /**
+     * Obtiene el movimiento k de la solución óptima sin simular la partida
+     * @param k Número de movimiento (1..2^n - 1)
+     * @return Descripción del movimiento k
+     */
+    public String getMoveAt(long k) {
+        checkThreePegs();
+        int from = IterativeSolver.fromPegAt(numberOfDiscs, k);
+        int to = IterativeSolver.toPegAt(numberOfDiscs, k);
+        return Move.format(k, IterativeSolver.discAt(k), towers[from].getName(), towers[to].getName());
+    }
+
+    /**
+     * Obtiene la configuración de las torres tras k movimientos de la solución óptima
+     * Se calcula en O(n) a partir de la representación binaria de k
+     * @param k Movimientos realizados (0..2^n - 1)
+     * @return Máscara por torre [A, B, C]: el bit (tamaño - 1) indica que el disco está en ella
+     */
+    public long[] getTowerMasksAt(long k) {
+        checkThreePegs();
+        return IterativeSolver.towersAt(numberOfDiscs, k);
+    }
+
+    /**
+     * El acceso directo al movimiento k solo está definido para la solución de tres torres
+     */
+    private void checkThreePegs() {
+        if (towers.length != 3) {
+            throw new IllegalStateException("El acceso directo a movimientos requiere 3 torres");
+        }
     }
 
     /**
@@ -256,7 +385,7 @@ public class HanoiGame {
      */
     public double getProgress() {
         if (numberOfDiscs == 0) return 1.0;
-        return (double) towers[2].getDiscCount() / numberOfDiscs;
+        return (double) getTargetTower().getDiscCount() / numberOfDiscs;
     }
 
     /**
@@ -296,15 +425,92 @@ public class HanoiGame {
         return towers[2];
     }
 
+    /**
+     * Obtiene la torre destino de la solución (la última)
+     * @return Torre destino
+     */
+    public Tower getTargetTower() {
+        return towers[towers.length - 1];
+    }
+
+    public int getNumberOfPegs() {
+        return towers.length;
+    }
+
     public int getNumberOfDiscs() {
         return numberOfDiscs;
     }
 
+    /**
+     * Genera el texto del historial a partir del registro compacto
+     * @return Lista con la descripción de cada movimiento
+     */
     public List<String> getMoveHistory() {
-        return new ArrayList<>(moveHistory);
+        if (moveLog.size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("El historial es demasiado grande para una lista");
+        }
+
+        List<String> history = new ArrayList<>((int) moveLog.size());
+        MoveCursor cursor = moveLog.cursor();
+        while (cursor.next()) {
+            history.add(describe(cursor));
+        }
+        return history;
+    }
+
+    /**
+     * Crea un cursor sobre el historial para recorrerlo sin copiarlo
+     * @return Cursor situado antes del primer movimiento
+     */
+    public MoveCursor historyCursor() {
+        return moveLog.cursor();
     }
 
-    public int getMoveCount() {
+    /**
+     * Da formato de texto al movimiento actual de un cursor usando los nombres de las torres
+     * @param cursor Cursor situado sobre un movimiento
+     * @return Descripción del movimiento
+     */
+    public String describe(MoveCursor cursor) {
+        return Move.format(cursor.moveNumber(), cursor.disc(),
+                towers[cursor.from()].getName(), towers[cursor.to()].getName());
+    }
+
+    /**
+     * Describe un movimiento del historial sin recorrer los anteriores
+     * @param index Índice del movimiento (0 = primero)
+     * @return Descripción del movimiento
+     */
+    public String describeMoveAt(long index) {
+        return Move.format(index + 1, moveLog.discAt(index),
+                towers[moveLog.fromAt(index)].getName(), towers[moveLog.toAt(index)].getName());
+    }
+
+    /**
+     * Obtiene los nombres de las torres en orden de índice
+     * @return Array con los nombres ["A", "B", "C", ...]
+     */
+    public String[] getTowerNames() {
+        String[] names = new String[towers.length];
+        for (int i = 0; i < towers.length; i++) {
+            names[i] = towers[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Obtiene el registro compacto de movimientos
+     * @return Registro de movimientos empaquetados
+     */
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    public HanoiSolver getSolver() {
+        return solver;
+    }
+
+    public long getMoveCount() {
         return moveCount;
     }
 
@@ -317,10 +523,15 @@ public class HanoiGame {
      * @return String del último movimiento o null si no hay movimientos
      */
     public String getLastMove() {
-        if (moveHistory.isEmpty()) {
+        if (moveLog.isEmpty()) {
             return null;
         }
-        return moveHistory.get(moveHistory.size() - 1);
+
+        // El disco movido es el que quedó en el tope de la torre destino
+        long last = moveLog.size() - 1;
+        Tower to = towers[moveLog.toAt(last)];
+        return Move.format(moveLog.size(), TowerBits.top(to.getDiscMask()),
+                towers[moveLog.fromAt(last)].getName(), to.getName());
     }
 
     /**
@@ -329,26 +540,42 @@ public class HanoiGame {
      */
     public String getVisualRepresentation() {
         StringBuilder sb = new StringBuilder();
-        sb.append("Torre A\t\tTorre B\t\tTorre C\n");
-        sb.append("------\t\t------\t\t------\n");
-
-        int maxHeight = Math.max(Math.max(towers[0].getDiscCount(),
-                        towers[1].getDiscCount()),
-                towers[2].getDiscCount());
+        int maxHeight = 0;
+        long[] cursors = new long[towers.length];
+        for (int i = 0; i < towers.length; i++) {
+            sb.append("Torre ").append(towers[i].getName()).append("\t\t");
+            maxHeight = Math.max(maxHeight, towers[i].getDiscCount());
+
+            // Cursores sobre las máscaras: al bajar de nivel se consume el tope de cada torre
+            cursors[i] = towers[i].getDiscMask();
+        }
+        sb.append("\n");
+        sb.append("------\t\t".repeat(towers.length)).append("\n");
 
         for (int level = maxHeight - 1; level >= 0; level--) {
-            for (int towerIndex = 0; towerIndex < 3; towerIndex++) {
-                Discs[] discs = towers[towerIndex].getDiscsFromBottomToTop();
-                if (level < discs.length) {
-                    sb.append("  ").append(discs[level].getSize()).append("\t\t");
-                } else {
-                    sb.append("  |\t\t");
-                }
+            for (int i = 0; i < towers.length; i++) {
+                cursors[i] = appendLevel(sb, cursors[i], level);
             }
             sb.append("\n");
         }
 
-        sb.append("=====\t\t=====\\t\t=====\n");
+        sb.append("=====\t\t".repeat(towers.length)).append("\n");
         return sb.toString();
     }
+
+    /**
+     * Escribe la celda de una torre en un nivel y avanza su cursor
+     * @param sb Destino del texto
+     * @param cursor Discos de la torre aún no dibujados (máscara)
+     * @param level Nivel actual desde la base
+     * @return Cursor tras consumir el disco del nivel, si lo había
+     */
+    private long appendLevel(StringBuilder sb, long cursor, int level) {
+        if (level < TowerBits.count(cursor)) {
+            sb.append("  ").append(TowerBits.top(cursor)).append("\t\t");
+            return TowerBits.pop(cursor);
+        }
+        sb.append("  |\t\t");
+        return cursor;
+    }
 }
\ No newline at end of file
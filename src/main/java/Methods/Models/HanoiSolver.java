@@ -0,0 +1,44 @@
+package Methods.Models;
+
+/**
+ * Motor de resolución de las Torres de Hanoi
+ * Genera la secuencia de movimientos para llevar todos los discos
+ * de la torre 0 (A) a la última torre, trabajando solo con índices de torre
+ */
+public interface HanoiSolver {
+
+    /**
+     * Receptor primitivo de movimientos (sin objetos por movimiento)
+     */
+    @FunctionalInterface
+    interface MoveSink {
+        /**
+         * Recibe un movimiento generado por el motor
+         * @param disc Tamaño del disco movido (1 = más pequeño)
+         * @param from Índice de la torre origen (0 = A)
+         * @param to Índice de la torre destino (0 = A)
+         */
+        void accept(int disc, int from, int to);
+    }
+
+    /**
+     * Genera la secuencia completa de movimientos con tres torres (de 0 a 2)
+     * @param numberOfDiscs Número de discos a mover
+     * @param sink Receptor que recibe cada movimiento en orden
+     */
+    void solve(int numberOfDiscs, MoveSink sink);
+
+    /**
+     * Genera la secuencia completa de movimientos con un número de torres dado
+     * Los motores de tres torres solo aceptan numberOfPegs = 3
+     * @param numberOfDiscs Número de discos a mover
+     * @param numberOfPegs Número de torres; el destino es la torre numberOfPegs - 1
+     * @param sink Receptor que recibe cada movimiento en orden
+     */
+    default void solve(int numberOfDiscs, int numberOfPegs, MoveSink sink) {
+        if (numberOfPegs != 3) {
+            throw new IllegalArgumentException("Este motor solo resuelve el juego con 3 torres");
+        }
+        solve(numberOfDiscs, sink);
+    }
+}
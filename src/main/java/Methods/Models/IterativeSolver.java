@@ -0,0 +1,177 @@
+package Methods.Models;
+
+/**
+ * Motor de resolución iterativo basado en aritmética de bits
+ * El movimiento k (1..2^n - 1) se deduce solo de su índice:
+ * el disco es el número de ceros finales de k y el sentido de giro
+ * depende de la paridad de n - disco, sin recursión ni objetos por movimiento
+ */
+public class IterativeSolver implements HanoiSolver {
+
+    @Override
+    public void solve(int numberOfDiscs, MoveSink sink) {
+        if (numberOfDiscs <= 0) {
+            return;
+        }
+
+        long total = (1L << numberOfDiscs) - 1;
+        long k = 0;
+        while (k != total) {
+            k++;
+
+            // Disco que se mueve (0 = más pequeño) y veces que ya se movió
+            int disc = Long.numberOfTrailingZeros(k);
+            int step = stepOf(numberOfDiscs, disc);
+            int from = pegAfterTurns(numberOfDiscs, disc, k >>> (disc + 1));
+            int to = from + step >= 3 ? from + step - 3 : from + step;
+
+            sink.accept(disc + 1, from, to);
+        }
+    }
+
+    /**
+     * Crea un cursor que genera la solución óptima bajo demanda, con memoria constante
+     * @param numberOfDiscs Número de discos del juego
+     * @return Cursor situado antes del primer movimiento
+     */
+    public static MoveCursor cursor(int numberOfDiscs) {
+        checkDiscs(numberOfDiscs);
+        return new SolutionCursor(numberOfDiscs);
+    }
+
+    /**
+     * Cursor que calcula cada movimiento a partir de su índice
+     */
+    private static class SolutionCursor implements MoveCursor {
+        private final int numberOfDiscs;
+        private final long total;
+        private long k;
+        private int disc;
+        private int from;
+        private int to;
+
+        SolutionCursor(int numberOfDiscs) {
+            this.numberOfDiscs = numberOfDiscs;
+            this.total = (1L << numberOfDiscs) - 1;
+        }
+
+        @Override
+        public boolean next() {
+            if (k == total) {
+                return false;
+            }
+            k++;
+
+            int index = Long.numberOfTrailingZeros(k);
+            int step = stepOf(numberOfDiscs, index);
+            disc = index + 1;
+            from = pegAfterTurns(numberOfDiscs, index, k >>> (index + 1));
+            to = from + step >= 3 ? from + step - 3 : from + step;
+            return true;
+        }
+
+        @Override
+        public long moveNumber() { return k; }
+
+        @Override
+        public int disc() { return disc; }
+
+        @Override
+        public int from() { return from; }
+
+        @Override
+        public int to() { return to; }
+
+        @Override
+        public long size() { return total; }
+    }
+
+    /**
+     * Obtiene el disco que se mueve en el movimiento k
+     * @param k Número de movimiento (desde 1)
+     * @return Tamaño del disco (1 = más pequeño)
+     */
+    public static int discAt(long k) {
+        return Long.numberOfTrailingZeros(k) + 1;
+    }
+
+    /**
+     * Obtiene la torre origen del movimiento k en O(1)
+     * @param numberOfDiscs Número de discos del juego
+     * @param k Número de movimiento (desde 1)
+     * @return Índice de la torre origen
+     */
+    public static int fromPegAt(int numberOfDiscs, long k) {
+        checkMove(numberOfDiscs, k);
+        int disc = Long.numberOfTrailingZeros(k);
+
+        // Veces que este disco ya se movió antes del movimiento k
+        long turn = k >>> (disc + 1);
+        return pegAfterTurns(numberOfDiscs, disc, turn);
+    }
+
+    /**
+     * Obtiene la torre destino del movimiento k en O(1)
+     * @param numberOfDiscs Número de discos del juego
+     * @param k Número de movimiento (desde 1)
+     * @return Índice de la torre destino
+     */
+    public static int toPegAt(int numberOfDiscs, long k) {
+        int from = fromPegAt(numberOfDiscs, k);
+        int step = stepOf(numberOfDiscs, Long.numberOfTrailingZeros(k));
+        return from + step >= 3 ? from + step - 3 : from + step;
+    }
+
+    /**
+     * Calcula la configuración de las torres tras k movimientos en O(n), sin simular
+     * @param numberOfDiscs Número de discos del juego
+     * @param k Movimientos realizados (0..2^n - 1)
+     * @return Máscara por torre: el bit (tamaño - 1) indica que el disco está en ella
+     */
+    public static long[] towersAt(int numberOfDiscs, long k) {
+        checkState(numberOfDiscs, k);
+        long[] towers = new long[3];
+
+        for (int disc = 0; disc < numberOfDiscs; disc++) {
+            // El disco d se mueve en k = 2^d, 3·2^d, 5·2^d...: floor((k + 2^d) / 2^(d+1)) veces
+            long turns = (k >>> (disc + 1)) + ((k >>> disc) & 1);
+            towers[pegAfterTurns(numberOfDiscs, disc, turns)] |= 1L << disc;
+        }
+
+        return towers;
+    }
+
+    /**
+     * Torre en la que queda un disco tras moverse un número de veces
+     */
+    static int pegAfterTurns(int numberOfDiscs, int disc, long turns) {
+        return (int) ((turns % 3) * stepOf(numberOfDiscs, disc) % 3);
+    }
+
+    /**
+     * Cada disco gira siempre en el mismo sentido: +1 o +2 (mod 3)
+     */
+    static int stepOf(int numberOfDiscs, int disc) {
+        return ((numberOfDiscs - disc) & 1) == 0 ? 1 : 2;
+    }
+
+    private static void checkMove(int numberOfDiscs, long k) {
+        checkDiscs(numberOfDiscs);
+        if (k < 1 || k > (1L << numberOfDiscs) - 1) {
+            throw new IllegalArgumentException("Movimiento fuera de rango: " + k);
+        }
+    }
+
+    private static void checkState(int numberOfDiscs, long k) {
+        checkDiscs(numberOfDiscs);
+        if (k < 0 || k > (1L << numberOfDiscs) - 1) {
+            throw new IllegalArgumentException("Paso fuera de rango: " + k);
+        }
+    }
+
+    private static void checkDiscs(int numberOfDiscs) {
+        if (numberOfDiscs < 1 || numberOfDiscs > 63) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 1 y 63");
+        }
+    }
+}
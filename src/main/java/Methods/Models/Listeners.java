@@ -1,10 +1,18 @@
 package Methods.Models;
 
+import Controller.HistoryJournal;
+import Controller.HistorySaveService;
 import View.ScreenView;
 import View.Animations;
+import View.PlaybackScheduler;
+import View.UiUpdateCoalescer;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
 /**
  * Clase que contiene los métodos de interacción entre la vista y el modelo
  * Maneja los eventos y la lógica de presentación
@@ -13,12 +21,18 @@ public class Listeners {
     private HanoiGame game;
     private ScreenView screen;
     private Animations animations;
+    private PlaybackScheduler playback;
+    private UiUpdateCoalescer uiUpdates;
+    private Task<Void> solverTask;
+    private HistorySaveService historySaver;
+    private HistoryJournal journal;
     private boolean isAnimating;
     private int selectedDiscCount;
 
-    // Configuración de animación
-    private static final double ANIMATION_DURATION = 1000.0; // 1 segundo por movimiento
-    private static final double ANIMATION_DELAY = 500.0;     // 0.5 segundos entre movimientos
+    // Configuración de animación (a velocidad 1×; el reproductor las escala)
+    // Cada movimiento dura Animations.MOVEMENT_MILLIS (1,1 s) y el siguiente empieza a los 1,5 s
+    private static final double MOVE_INTERVAL = 1500.0;      // 1,5 segundos entre inicios de movimiento
+    private static final double START_DELAY = 500.0;         // Pausa antes del primer movimiento
 
     /**
      * Constructor de Listeners
@@ -30,7 +44,7 @@ public class Listeners {
 
     /**
      * Inicializa el juego con el número de discos seleccionado
-     * @param discCount Número de discos (3-6)
+     * @param discCount Número de discos
      */
     public void initializeGame(int discCount) {
         try {
@@ -40,6 +54,7 @@ public class Listeners {
 
             // Registrar callback para movimientos
             game.setMoveCallback(this::handleGameMovement);
+            startJournal();
 
             // Actualizar vista
             if (screen != null) {
@@ -51,9 +66,8 @@ public class Listeners {
                 
                 // Actualizar información del juego
                 screen.updateGameInfo("Juego inicializado con " + discCount + " discos");
-                screen.updateMoveCount(0);
-                screen.updateProgress(0);
-                screen.clearHistory();
+                clearHistory();
+                showProgress(0);
                 
                 // Habilitar botones
                 screen.enableStartButton(true);
@@ -66,6 +80,31 @@ public class Listeners {
         }
     }
 
+    /**
+     * Continúa una partida recuperada del diario de movimientos
+     * @param recovered Juego reconstruido a partir del diario
+     */
+    public void resumeGame(HanoiGame recovered) {
+        game = recovered;
+        selectedDiscCount = recovered.getNumberOfDiscs();
+        game.setMoveCallback(this::handleGameMovement);
+        startJournal();
+
+        if (screen != null) {
+            screen.updateTowerPositions(game.getTowers());
+            screen.drawInitialState(game.getTowers());
+            screen.getDiscSelector().setValue(selectedDiscCount);
+
+            screen.updateGameInfo("Partida recuperada: " + game.getMoveCount() + " movimientos");
+            clearHistory();
+            showProgress(game.getMoveCount());
+
+            screen.enableStartButton(true);
+            screen.enableResetButton(true);
+            screen.enableSaveHistoryButton(game.getMoveCount() > 0);
+        }
+    }
+
     /**
      * Maneja el evento de inicio de simulación automática
      */
@@ -86,61 +125,125 @@ public class Listeners {
     }
 
     /**
-     * Inicia la simulación con animaciones en un hilo separado
+     * Inicia la simulación: el motor resuelve en un hilo separado sin esperar a la vista
+     * y el reproductor aplica y anima sus movimientos al ritmo de la interfaz
      */
     private void startAnimatedSimulation() {
-        Task<Void> task = new Task<Void>() {
+        if (playback == null) {
+            game.startAutoSolution();
+            finishSimulation();
+            return;
+        }
+
+        // Reiniciar el juego para comenzar desde el estado inicial
+        game.reset();
+        startJournal();
+        screen.drawInitialState(game.getTowers());
+        clearHistory();
+        showProgress(0);
+        isAnimating = true;
+
+        HanoiSolver solver = game.getSolver();
+        int discCount = game.getNumberOfDiscs();
+        int numberOfPegs = game.getNumberOfPegs();
+        PlaybackScheduler.Feed feed = playback.play(game, MOVE_INTERVAL, START_DELAY,
+                this::finishSimulation);
+
+        solverTask = new Task<Void>() {
             @Override
             protected Void call() {
-                isAnimating = true;
-                
-                // Reiniciar el juego para comenzar desde el estado inicial
-                Platform.runLater(() -> {
-                    game.reset();
-                    screen.drawInitialState(game.getTowers());
-                    screen.clearHistory();
-                });
-                
-                try {
-                    // Pequeña pausa antes de comenzar
-                    Thread.sleep(500);
-                    
-                    // Iniciar la solución automática
-                    game.startAutoSolution();
-                    
-                } catch (InterruptedException e) {
-                    // La tarea fue cancelada
-                    System.out.println("Simulación cancelada");
-                } finally {
-                    isAnimating = false;
-                    
-                    // Actualizar UI cuando termine
-                    Platform.runLater(() -> {
-                        screen.enableResetButton(true);
-                        screen.enableSaveHistoryButton(true);
-                        screen.updateGameInfo("Simulación completada");
-                        
-                        // Si se completó el juego, mostrar animación de victoria
-                        if (game.isGameCompleted()) {
-                            // Convertir los discos de la torre C a un array
-                            Discs[] victoryDiscs = game.getTowerC().getDiscsFromBottomToTop();
-                            
-                            // Animar victoria
-                            animations.animateVictory(victoryDiscs);
-                        }
-                    });
-                }
-                
+                // Se bloquea solo cuando la cola está llena; cancelar la tarea lo interrumpe
+                solver.solve(discCount, numberOfPegs, feed);
+                feed.finish();
                 return null;
             }
         };
 
-        // Iniciar la tarea en un nuevo hilo
-        new Thread(task).start();
+        // Un fallo del motor dejaría la reproducción esperando movimientos que no llegan
+        Task<Void> task = solverTask;
+        task.setOnFailed(event -> handleSolverFailure(task));
+
+        Thread thread = new Thread(solverTask, "hanoi-solver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Actualiza la interfaz cuando la reproducción llega al final de la solución
+     */
+    private void finishSimulation() {
+        isAnimating = false;
+        solverTask = null;
+        if (game.isGameCompleted()) {
+            retireJournal();
+        } else {
+            syncJournal();
+        }
+
+        screen.drawInitialState(game.getTowers());
+        showProgress(game.getMoveCount());
+        if (uiUpdates != null) {
+            uiUpdates.flush();
+        }
+        screen.enableResetButton(true);
+        screen.enableSaveHistoryButton(true);
+        screen.updateGameInfo("Simulación completada");
+
+        // Si se completó el juego, mostrar animación de victoria
+        if (game.isGameCompleted() && animations != null && !screen.isCanvasRendering()) {
+            // Convertir los discos de la torre destino a un array
+            Discs[] victoryDiscs = game.getTargetTower().getDiscsFromBottomToTop();
+
+            // Animar victoria
+            animations.animateVictory(victoryDiscs);
+        }
+    }
+
+    /**
+     * Detiene la simulación si el motor de resolución termina con un error
+     * Se llama en el hilo de JavaFX
+     * @param task Tarea que ha fallado
+     */
+    private void handleSolverFailure(Task<Void> task) {
+        Throwable error = task.getException();
+        if (task != solverTask || error instanceof CancellationException) {
+            return;
+        }
+
+        cancelSimulation();
+        System.err.println("Error en el motor de resolución: " + error);
+        showError("Error al resolver el juego: " + (error == null ? "desconocido" : error.getMessage()));
+        if (screen != null) {
+            screen.updateGameInfo("Simulación interrumpida");
+            screen.enableStartButton(true);
+            screen.enableResetButton(true);
+            screen.enableSaveHistoryButton(game.getMoveCount() > 0);
+        }
+    }
+
+    /**
+     * Cancela la simulación en curso: detiene el motor, la reproducción y las animaciones
+     */
+    private void cancelSimulation() {
+        if (solverTask != null) {
+            solverTask.cancel(true);
+            solverTask = null;
+        }
+        if (playback != null) {
+            playback.cancel();
+        }
+        if (isAnimating && animations != null) {
+            animations.stopAllAnimations();
+        }
+        if (isAnimating) {
+            isAnimating = false;
+            syncJournal();
+        }
     }
 
     /**
      * Maneja cada movimiento del juego con animación
+     * Se llama en el hilo de JavaFX, desde el reproductor
      * @param move Movimiento a procesar
      */
     private void handleGameMovement(HanoiGame.Move move) {
@@ -148,41 +251,79 @@ public class Listeners {
             return;
         }
 
-        // Obtener torres origen y destino
-        Tower fromTower = game.getTowerByName(move.getFrom());
-        Tower toTower = game.getTowerByName(move.getTo());
-        Discs disc = move.getDisc();
+        // El historial visual lee las filas del registro; solo crece (una vez por pulso)
+        showProgress(move.getMoveNumber());
 
-        // Registrar movimiento en el historial visual
-        Platform.runLater(() -> {
-            screen.updateHistoryArea(move.toString());
-            screen.updateMoveCount(move.getMoveNumber());
-            screen.updateProgress(game.getProgress());
-        });
+        // A alta velocidad no se anima cada movimiento: se dibuja un fotograma clave por pulso
+        if (playback != null && playback.isSkippingFrames()) {
+            return;
+        }
+
+        // El lienzo no anima: repinta al momento las dos torres afectadas
+        if (screen.isCanvasRendering()) {
+            screen.drawInitialState(game.getTowers());
+            return;
+        }
 
         // Animar el movimiento
         if (animations != null && isAnimating) {
             try {
-                // Animar el movimiento del disco de manera segura
-                final Tower finalFromTower = fromTower;
-                final Tower finalToTower = toTower;
-                
-                Platform.runLater(() -> {
-                    try {
-                        animations.animateDiscMovement(disc, finalFromTower, finalToTower, ANIMATION_DURATION);
-                    } catch (Exception ex) {
-                        System.err.println("Error en animación: " + ex.getMessage());
-                    }
-                });
-
-                // Esperar a que termine la animación y el delay
-                Thread.sleep((long)(ANIMATION_DURATION + ANIMATION_DELAY));
-            } catch (InterruptedException e) {
-                System.err.println("Animación interrumpida: " + e.getMessage());
+                animations.animateDiscMovement(move.getDisc(), game.getTowerByName(move.getFrom()),
+                        game.getTowerByName(move.getTo()));
+            } catch (Exception ex) {
+                System.err.println("Error en animación: " + ex.getMessage());
             }
         }
     }
 
+    /**
+     * Dibuja el estado actual del juego tras un pulso en el que no se animaron los movimientos
+     */
+    private void renderKeyframe() {
+        if (screen == null || game == null) {
+            return;
+        }
+        // Una animación que quedara a medias movería el disco después de colocarlo
+        if (animations != null && animations.isAnimationInProgress()) {
+            animations.stopAllAnimations();
+        }
+        screen.drawInitialState(game.getTowers());
+    }
+
+    /**
+     * Maneja el cambio entre la vista de nodos y la de lienzo
+     * Se puede cambiar en cualquier momento, también durante una simulación
+     * @param canvas true para dibujar el juego sobre un único Canvas
+     */
+    public void handleRendererChange(boolean canvas) {
+        if (screen == null || game == null) {
+            return;
+        }
+        // Las animaciones de rectángulos en curso no tienen sentido en la otra vista
+        if (animations != null && animations.isAnimationInProgress()) {
+            animations.stopAllAnimations();
+        }
+        screen.setCanvasRendering(canvas, game.getTowers());
+    }
+
+    /**
+     * Maneja el cambio de velocidad de reproducción
+     * Se aplica al momento, también durante una simulación
+     * @param speed Multiplicador de velocidad (1 = un movimiento cada 1,5 segundos)
+     */
+    public void handleSpeedChange(double speed) {
+        if (playback == null) {
+            return;
+        }
+        playback.setSpeed(speed);
+        if (animations != null) {
+            animations.setAnimationDuration(Animations.MOVEMENT_MILLIS / playback.getSpeed());
+        }
+        if (screen != null) {
+            screen.updateSpeed(playback.getSpeed());
+        }
+    }
+
     /**
      * Maneja el evento de reset del juego
      */
@@ -191,21 +332,18 @@ public class Listeners {
             return;
         }
 
-        // Si hay animaciones en curso, detenerlas
-        if (isAnimating && animations != null) {
-            animations.stopAllAnimations();
-            isAnimating = false;
-        }
+        // Si hay una simulación en curso, detenerla
+        cancelSimulation();
 
         // Reiniciar el juego
         game.reset();
+        startJournal();
 
         // Actualizar UI
         if (screen != null) {
             screen.drawInitialState(game.getTowers());
-            screen.clearHistory();
-            screen.updateMoveCount(0);
-            screen.updateProgress(0);
+            clearHistory();
+            showProgress(0);
             screen.updateGameInfo("Juego reiniciado");
             screen.enableStartButton(true);
             screen.enableSaveHistoryButton(false);
@@ -221,11 +359,8 @@ public class Listeners {
             return;
         }
 
-        // Si hay animaciones en curso, detenerlas
-        if (isAnimating && animations != null) {
-            animations.stopAllAnimations();
-            isAnimating = false;
-        }
+        // Si hay una simulación en curso, detenerla
+        cancelSimulation();
 
         // Inicializar nuevo juego con el número de discos seleccionado
         initializeGame(discCount);
@@ -233,21 +368,100 @@ public class Listeners {
 
     /**
      * Maneja el evento de guardar historial
+     * El archivo se escribe en segundo plano; el botón se reactiva al terminar
      */
     public void handleSaveHistory() {
         if (game == null || screen == null) {
             return;
         }
+        if (historySaver == null) {
+            showError("El servicio de guardado no está disponible");
+            return;
+        }
 
+        screen.enableSaveHistoryButton(false);
+        screen.updateGameInfo("Guardando historial...");
+
+        historySaver.saveToBinary(game).whenComplete((filename, error) -> Platform.runLater(() -> {
+            screen.enableSaveHistoryButton(true);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                screen.updateGameInfo("No se pudo guardar el historial");
+                showError("Error al guardar historial: " + cause.getMessage());
+            } else {
+                screen.updateGameInfo("Historial guardado");
+                showInfo("Historial guardado correctamente en " + filename);
+            }
+        }));
+    }
+
+    /**
+     * Muestra el contador de movimientos y el progreso del juego actual
+     * @param moveCount Movimientos realizados
+     */
+    private void showProgress(long moveCount) {
+        if (uiUpdates != null) {
+            uiUpdates.setHistorySize(moveCount);
+            uiUpdates.setMoveCount(moveCount);
+            uiUpdates.setProgress(game.getProgress());
+        } else {
+            screen.updateHistorySize(moveCount);
+            screen.updateMoveCount(moveCount);
+            screen.updateProgress(game.getProgress());
+        }
+    }
+
+    /**
+     * Vacía el historial visual y lo enlaza con el registro del juego actual
+     * El tamaño pendiente en el agrupador se anula para que no se aplique sobre otro registro
+     */
+    private void clearHistory() {
+        screen.setHistorySource(game::describeMoveAt);
+        if (uiUpdates != null) {
+            uiUpdates.setHistorySize(0);
+        }
+    }
+
+    /**
+     * Empieza el diario de movimientos de la partida actual
+     * Si el diario falla la partida continúa, solo que sin poder recuperarse
+     */
+    private void startJournal() {
+        if (journal == null || game == null) {
+            return;
+        }
         try {
-            // Aquí se implementaría la lógica para guardar el historial
-            // Por ejemplo, usando la clase Aux o mostrando un diálogo para guardar archivo
-            
-            // Por ahora, solo mostraremos un mensaje
-            showInfo("Historial guardado correctamente");
-            
-        } catch (Exception e) {
-            showError("Error al guardar historial: " + e.getMessage());
+            journal.begin(game.getMoveLog());
+            game.setMoveListener(journal);
+        } catch (IOException e) {
+            game.setMoveListener(null);
+            System.err.println("No se pudo iniciar el diario de movimientos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pide que se aseguren en disco los últimos movimientos del diario
+     * La sincronización ocurre en el hilo del diario, sin bloquear la interfaz
+     */
+    private void syncJournal() {
+        if (journal != null) {
+            journal.requestSync();
+        }
+    }
+
+    /**
+     * Retira el diario de una partida terminada: ya no hay nada que recuperar
+     */
+    private void retireJournal() {
+        if (journal == null) {
+            return;
+        }
+        game.setMoveListener(null);
+        try {
+            journal.retire();
+        } catch (IOException e) {
+            System.err.println("Error al retirar el diario de movimientos: " + e.getMessage());
         }
     }
 
@@ -282,6 +496,30 @@ public class Listeners {
 
     public void setAnimations(Animations animations) {
         this.animations = animations;
+        // La duración de las animaciones sigue a la velocidad desde el principio
+        if (playback != null) {
+            handleSpeedChange(playback.getSpeed());
+        }
+    }
+
+    public void setPlayback(PlaybackScheduler playback) {
+        this.playback = playback;
+        if (playback != null) {
+            playback.setOnKeyframe(this::renderKeyframe);
+            handleSpeedChange(screen != null ? screen.getSelectedSpeed() : playback.getSpeed());
+        }
+    }
+
+    public void setUiUpdates(UiUpdateCoalescer uiUpdates) {
+        this.uiUpdates = uiUpdates;
+    }
+
+    public void setHistorySaver(HistorySaveService historySaver) {
+        this.historySaver = historySaver;
+    }
+
+    public void setJournal(HistoryJournal journal) {
+        this.journal = journal;
     }
 
     // Getters
@@ -0,0 +1,50 @@
+package Methods.Models;
+
+/**
+ * Cursor primitivo sobre una secuencia de movimientos
+ * Permite recorrer historiales o soluciones de forma incremental con memoria constante,
+ * sin materializar listas ni crear objetos por movimiento
+ */
+public interface MoveCursor {
+
+    /**
+     * Avanza al siguiente movimiento
+     * @return true si hay un movimiento actual, false si la secuencia terminó
+     */
+    boolean next();
+
+    /**
+     * @return Número del movimiento actual (desde 1)
+     */
+    long moveNumber();
+
+    /**
+     * @return Tamaño del disco del movimiento actual
+     */
+    int disc();
+
+    /**
+     * @return Índice de la torre origen del movimiento actual
+     */
+    int from();
+
+    /**
+     * @return Índice de la torre destino del movimiento actual
+     */
+    int to();
+
+    /**
+     * @return Número total de movimientos de la secuencia
+     */
+    long size();
+
+    /**
+     * Entrega los movimientos restantes a un receptor
+     * @param sink Receptor de (disco, origen, destino)
+     */
+    default void forEachRemaining(HanoiSolver.MoveSink sink) {
+        while (next()) {
+            sink.accept(disc(), from(), to());
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package Methods.Models;
+
+import java.util.Arrays;
+
+/**
+ * Registro compacto de movimientos
+ * Cada movimiento se guarda como par (torre origen, torre destino) empaquetado en bits
+ * dentro de bloques de long[]: con 3 torres son 4 bits por movimiento (16 por long).
+ * El disco no se almacena; se deduce repitiendo los movimientos desde el punto de
+ * control más cercano, que se guarda cada CHECKPOINT_INTERVAL movimientos
+ */
+public final class MoveLog {
+
+    private static final int CHUNK_SHIFT = 10;                    // 1024 longs por bloque
+    private static final int CHUNK_WORDS = 1 << CHUNK_SHIFT;
+    private static final int CHECKPOINT_INTERVAL = 4096;          // Movimientos entre puntos de control
+
+    private final int numberOfDiscs;
+    private final int numberOfPegs;
+    private final int bitsPerPeg;
+    private final int movesPerWord;
+    private final long pegMask;
+
+    private long[][] chunks;        // Movimientos empaquetados
+    private long size;              // Número de movimientos registrados
+    private long[] pegs;            // Estado actual de las torres (máscaras)
+    private long[] checkpoints;     // Estados guardados cada CHECKPOINT_INTERVAL movimientos
+
+    /**
+     * Constructor del registro, con todos los discos en la torre 0
+     * @param numberOfDiscs Número de discos del juego
+     * @param numberOfPegs Número de torres del juego
+     */
+    public MoveLog(int numberOfDiscs, int numberOfPegs) {
+        if (numberOfPegs < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 torres");
+        }
+
+        this.numberOfDiscs = numberOfDiscs;
+        this.numberOfPegs = numberOfPegs;
+        this.bitsPerPeg = bitsPerMoveFor(numberOfPegs) / 2;
+        this.movesPerWord = 64 / (2 * bitsPerPeg);
+        this.pegMask = (1L << bitsPerPeg) - 1;
+        clear();
+    }
+
+    /**
+     * Calcula los bits que ocupa un movimiento empaquetado
+     * @param numberOfPegs Número de torres
+     * @return Bits por movimiento (origen y destino)
+     */
+    public static int bitsPerMoveFor(int numberOfPegs) {
+        return 2 * Math.max(1, 32 - Integer.numberOfLeadingZeros(numberOfPegs - 1));
+    }
+
+    /**
+     * Crea un registro con espacio reservado para un número fijo de movimientos
+     * Lo usan los generadores paralelos, que escriben palabras completas con setWord
+     * @param numberOfDiscs Número de discos del juego
+     * @param numberOfPegs Número de torres del juego
+     * @param moves Movimientos que se van a escribir
+     * @return Registro con tamaño moves y bloques reservados
+     */
+    static MoveLog preallocated(int numberOfDiscs, int numberOfPegs, long moves) {
+        MoveLog log = new MoveLog(numberOfDiscs, numberOfPegs);
+        long words = (moves + log.movesPerWord - 1) / log.movesPerWord;
+        long chunkCount = (words + CHUNK_WORDS - 1) >>> CHUNK_SHIFT;
+        long checkpointSlots = (moves / CHECKPOINT_INTERVAL + 1) * numberOfPegs;
+        if (chunkCount > Integer.MAX_VALUE || checkpointSlots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados movimientos para reservar: " + moves);
+        }
+
+        log.chunks = new long[(int) Math.max(1, chunkCount)][];
+        for (int i = 0; i < chunkCount; i++) {
+            log.chunks[i] = new long[CHUNK_WORDS];
+        }
+        log.checkpoints = Arrays.copyOf(log.checkpoints, (int) checkpointSlots);
+        log.size = moves;
+        return log;
+    }
+
+    /**
+     * Escribe una palabra completa de movimientos empaquetados (sin validar)
+     * Palabras distintas pueden escribirse desde hilos distintos
+     * @param word Índice de la palabra
+     * @param bits Movimientos empaquetados
+     */
+    void setWord(long word, long bits) {
+        chunks[(int) (word >>> CHUNK_SHIFT)][(int) (word & (CHUNK_WORDS - 1))] = bits;
+    }
+
+    /**
+     * Guarda el estado de las torres tras checkpoint * CHECKPOINT_INTERVAL movimientos
+     * @param checkpoint Índice del punto de control
+     * @param state Máscara de cada torre
+     */
+    void setCheckpoint(long checkpoint, long[] state) {
+        System.arraycopy(state, 0, checkpoints, (int) (checkpoint * numberOfPegs), numberOfPegs);
+    }
+
+    /**
+     * Establece el estado actual de las torres tras el último movimiento
+     * @param state Máscara de cada torre
+     */
+    void setState(long[] state) {
+        System.arraycopy(state, 0, pegs, 0, numberOfPegs);
+    }
+
+    /**
+     * Vacía el registro y vuelve al estado inicial
+     */
+    public void clear() {
+        chunks = new long[1][];
+        size = 0;
+        pegs = new long[numberOfPegs];
+        pegs[0] = HanoiGame.minimumMovesFor(numberOfDiscs);    // 2^n - 1: todos los discos
+        checkpoints = Arrays.copyOf(pegs, numberOfPegs * 4);
+    }
+
+    /**
+     * Crea una copia independiente del registro en su estado actual
+     * Los bloques ya completos no vuelven a modificarse, así que se comparten;
+     * solo se copia el último bloque, que todavía puede recibir movimientos
+     * @return Registro con los mismos movimientos, seguro de leer desde otro hilo
+     */
+    public MoveLog snapshot() {
+        MoveLog copy = new MoveLog(numberOfDiscs, numberOfPegs);
+        copy.chunks = Arrays.copyOf(chunks, chunks.length);
+        long words = getWordCount();
+        if (words > 0) {
+            int last = (int) ((words - 1) >>> CHUNK_SHIFT);
+            copy.chunks[last] = chunks[last].clone();
+        }
+        copy.size = size;
+        copy.pegs = pegs.clone();
+        copy.checkpoints = checkpoints.clone();
+        return copy;
+    }
+
+    /**
+     * Registra un movimiento ya validado
+     * @param from Índice de la torre origen
+     * @param to Índice de la torre destino
+     */
+    public void append(int from, int to) {
+        long word = size / movesPerWord;
+        int shift = (int) (size % movesPerWord) * 2 * bitsPerPeg;
+        long[] chunk = chunkForWrite(word);
+        int index = (int) (word & (CHUNK_WORDS - 1));
+        chunk[index] |= (((long) from << bitsPerPeg) | to) << shift;
+
+        // Actualizar estado para poder deducir discos y puntos de control
+        long disc = Long.lowestOneBit(pegs[from]);
+        pegs[from] ^= disc;
+        pegs[to] |= disc;
+        size++;
+
+        if (size % CHECKPOINT_INTERVAL == 0) {
+            storeCheckpoint();
+        }
+    }
+
+    /**
+     * Obtiene una palabra de movimientos empaquetados tal como se almacena
+     * @param word Índice de la palabra (movimientos word * movesPerWord en adelante)
+     * @return Bits de la palabra
+     */
+    public long wordAt(long word) {
+        if (word < 0 || word >= getWordCount()) {
+            throw new IndexOutOfBoundsException("Palabra fuera de rango: " + word);
+        }
+        return chunks[(int) (word >>> CHUNK_SHIFT)][(int) (word & (CHUNK_WORDS - 1))];
+    }
+
+    /**
+     * @return Número de palabras ocupadas por los movimientos
+     */
+    public long getWordCount() {
+        return (size + movesPerWord - 1) / movesPerWord;
+    }
+
+    /**
+     * Obtiene la torre origen de un movimiento
+     * @param index Índice del movimiento (desde 0)
+     * @return Índice de la torre origen
+     */
+    public int fromAt(long index) {
+        return (int) ((code(index) >>> bitsPerPeg) & pegMask);
+    }
+
+    /**
+     * Obtiene la torre destino de un movimiento
+     * @param index Índice del movimiento (desde 0)
+     * @return Índice de la torre destino
+     */
+    public int toAt(long index) {
+        return (int) (code(index) & pegMask);
+    }
+
+    /**
+     * Deduce el disco movido repitiendo desde el punto de control anterior
+     * @param index Índice del movimiento (desde 0)
+     * @return Tamaño del disco movido
+     */
+    public int discAt(long index) {
+        checkIndex(index);
+        long[] state = stateAt(index - index % CHECKPOINT_INTERVAL);
+        for (long i = index - index % CHECKPOINT_INTERVAL; i < index; i++) {
+            applyTo(state, fromAt(i), toAt(i));
+        }
+        return TowerBits.top(state[fromAt(index)]);
+    }
+
+    /**
+     * Recorre todos los movimientos en orden, deduciendo el disco de cada uno
+     * @param sink Receptor de (disco, origen, destino)
+     */
+    public void forEach(HanoiSolver.MoveSink sink) {
+        cursor().forEachRemaining(sink);
+    }
+
+    /**
+     * Crea un cursor que recorre el registro con memoria constante
+     * @return Cursor situado antes del primer movimiento
+     */
+    public MoveCursor cursor() {
+        return new LogCursor();
+    }
+
+    /**
+     * Cursor que repite los movimientos sobre una copia del estado inicial
+     */
+    private class LogCursor implements MoveCursor {
+        private final long[] state = stateAt(0);
+        private final long end = size;
+        private long index = -1;
+        private int disc;
+        private int from;
+        private int to;
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= end) {
+                return false;
+            }
+            index++;
+            from = fromAt(index);
+            to = toAt(index);
+            disc = TowerBits.top(state[from]);
+            applyTo(state, from, to);
+            return true;
+        }
+
+        @Override
+        public long moveNumber() { return index + 1; }
+
+        @Override
+        public int disc() { return disc; }
+
+        @Override
+        public int from() { return from; }
+
+        @Override
+        public int to() { return to; }
+
+        @Override
+        public long size() { return end; }
+    }
+
+    /**
+     * Obtiene una copia del estado de las torres tras un múltiplo de CHECKPOINT_INTERVAL
+     */
+    private long[] stateAt(long checkpointMove) {
+        int offset = (int) (checkpointMove / CHECKPOINT_INTERVAL) * numberOfPegs;
+        return Arrays.copyOfRange(checkpoints, offset, offset + numberOfPegs);
+    }
+
+    private static void applyTo(long[] state, int from, int to) {
+        long disc = Long.lowestOneBit(state[from]);
+        state[from] ^= disc;
+        state[to] |= disc;
+    }
+
+    private void storeCheckpoint() {
+        int offset = (int) (size / CHECKPOINT_INTERVAL) * numberOfPegs;
+        if (offset + numberOfPegs > checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+        }
+        System.arraycopy(pegs, 0, checkpoints, offset, numberOfPegs);
+    }
+
+    private long code(long index) {
+        checkIndex(index);
+        long word = index / movesPerWord;
+        int shift = (int) (index % movesPerWord) * 2 * bitsPerPeg;
+        long bits = chunks[(int) (word >>> CHUNK_SHIFT)][(int) (word & (CHUNK_WORDS - 1))];
+        return bits >>> shift;
+    }
+
+    private long[] chunkForWrite(long word) {
+        int chunkIndex = (int) (word >>> CHUNK_SHIFT);
+        if (chunkIndex >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new long[CHUNK_WORDS];
+        }
+        return chunks[chunkIndex];
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Movimiento fuera de rango: " + index);
+        }
+    }
+
+    // Getters
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getNumberOfDiscs() {
+        return numberOfDiscs;
+    }
+
+    public int getNumberOfPegs() {
+        return numberOfPegs;
+    }
+
+    public int getMovesPerWord() {
+        return movesPerWord;
+    }
+
+    public static int getCheckpointInterval() {
+        return CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Bits ocupados por cada movimiento empaquetado
+     * @return Bits por movimiento (4 con tres torres)
+     */
+    public int getBitsPerMove() {
+        return 2 * bitsPerPeg;
+    }
+}
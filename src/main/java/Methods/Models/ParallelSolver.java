@@ -0,0 +1,128 @@
+package Methods.Models;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Motor de resolución paralelo (fork-join)
+ * Como cada movimiento se calcula solo a partir de su índice, el rango de índices
+ * se reparte entre los núcleos y cada tarea escribe palabras completas del
+ * registro empaquetado, sin compartir estado entre hilos
+ */
+public class ParallelSolver implements HanoiSolver {
+
+    // 2^30 - 1 movimientos a 4 bits ocupan 512 MiB; con cada disco más el registro dobla su tamaño
+    public static final int MAX_DISCS = 30;
+    private static final long WORDS_PER_TASK = 1L << 12;    // 65536 movimientos por tarea hoja
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor que usa el pool común de fork-join
+     */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool propio
+     * @param pool Pool donde se ejecutan las tareas
+     */
+    public ParallelSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void solve(int numberOfDiscs, MoveSink sink) {
+        if (numberOfDiscs <= 0) {
+            return;
+        }
+        generate(numberOfDiscs).forEach(sink);
+    }
+
+    /**
+     * Genera la solución óptima completa en un registro empaquetado
+     * @param numberOfDiscs Número de discos (1-30)
+     * @return Registro con los 2^n - 1 movimientos
+     */
+    public MoveLog generate(int numberOfDiscs) {
+        if (numberOfDiscs < 1 || numberOfDiscs > MAX_DISCS) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 1 y " + MAX_DISCS);
+        }
+
+        long total = HanoiGame.minimumMovesFor(numberOfDiscs);
+        MoveLog log = MoveLog.preallocated(numberOfDiscs, 3, total);
+        long words = (total + log.getMovesPerWord() - 1) / log.getMovesPerWord();
+
+        pool.invoke(new GenerateTask(log, numberOfDiscs, total, 0, words));
+
+        log.setState(IterativeSolver.towersAt(numberOfDiscs, total));
+        return log;
+    }
+
+    /**
+     * Tarea que rellena un rango de palabras del registro
+     */
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MoveLog log;     // La tarea nunca se serializa
+        private final int numberOfDiscs;
+        private final long total;
+        private final long firstWord;
+        private final long endWord;
+
+        GenerateTask(MoveLog log, int numberOfDiscs, long total, long firstWord, long endWord) {
+            this.log = log;
+            this.numberOfDiscs = numberOfDiscs;
+            this.total = total;
+            this.firstWord = firstWord;
+            this.endWord = endWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (endWord - firstWord > WORDS_PER_TASK) {
+                // Dividir el rango por la mitad, como las dos sub-soluciones de n-1 discos
+                long middle = (firstWord + endWord) >>> 1;
+                invokeAll(new GenerateTask(log, numberOfDiscs, total, firstWord, middle),
+                        new GenerateTask(log, numberOfDiscs, total, middle, endWord));
+                return;
+            }
+
+            int movesPerWord = log.getMovesPerWord();
+            int bitsPerMove = log.getBitsPerMove();
+            int bitsPerPeg = bitsPerMove / 2;
+
+            for (long word = firstWord; word < endWord; word++) {
+                long first = word * movesPerWord;
+                long end = Math.min(first + movesPerWord, total);
+                long bits = 0;
+
+                for (long index = first; index < end; index++) {
+                    long k = index + 1;
+                    int disc = Long.numberOfTrailingZeros(k);
+                    int step = IterativeSolver.stepOf(numberOfDiscs, disc);
+                    int from = IterativeSolver.pegAfterTurns(numberOfDiscs, disc, k >>> (disc + 1));
+                    int to = from + step >= 3 ? from + step - 3 : from + step;
+
+                    bits |= ((long) ((from << bitsPerPeg) | to)) << ((index - first) * bitsPerMove);
+                }
+                log.setWord(word, bits);
+            }
+
+            storeCheckpoints(firstWord * movesPerWord, Math.min(endWord * movesPerWord, total));
+        }
+
+        /**
+         * Calcula los puntos de control que caen dentro del rango de esta tarea
+         */
+        private void storeCheckpoints(long firstMove, long endMove) {
+            long interval = MoveLog.getCheckpointInterval();
+            for (long checkpoint = (firstMove + interval - 1) / interval;
+                 checkpoint * interval < endMove; checkpoint++) {
+                log.setCheckpoint(checkpoint, IterativeSolver.towersAt(numberOfDiscs, checkpoint * interval));
+            }
+        }
+    }
+}
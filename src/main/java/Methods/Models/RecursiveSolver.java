@@ -0,0 +1,40 @@
+package Methods.Models;
+
+/**
+ * Motor de resolución recursivo clásico
+ * Mueve n-1 discos a la torre auxiliar, el disco mayor al destino
+ * y luego los n-1 discos sobre él
+ */
+public class RecursiveSolver implements HanoiSolver {
+
+    @Override
+    public void solve(int numberOfDiscs, MoveSink sink) {
+        if (numberOfDiscs > 0) {
+            solveHanoi(numberOfDiscs, 0, 2, 1, sink);
+        }
+    }
+
+    /**
+     * Algoritmo recursivo para resolver las Torres de Hanoi
+     * @param n Número de discos a mover
+     * @param source Torre origen
+     * @param destination Torre destino
+     * @param auxiliary Torre auxiliar
+     * @param sink Receptor de movimientos
+     */
+    private void solveHanoi(int n, int source, int destination, int auxiliary, MoveSink sink) {
+        if (n == 1) {
+            // Caso base: mover un solo disco
+            sink.accept(1, source, destination);
+        } else {
+            // Paso 1: Mover n-1 discos de origen a auxiliar
+            solveHanoi(n - 1, source, auxiliary, destination, sink);
+
+            // Paso 2: Mover el disco más grande a destino
+            sink.accept(n, source, destination);
+
+            // Paso 3: Mover n-1 discos de auxiliar a destino
+            solveHanoi(n - 1, auxiliary, destination, source, sink);
+        }
+    }
+}
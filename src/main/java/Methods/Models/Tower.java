@@ -1,14 +1,15 @@
 package Methods.Models;
 
-import java.util.Stack;
-import java.util.Iterator;
+import java.util.Arrays;
 
 /**
  * Clase que representa una torre en el juego de Torres de Hanoi
- * Implementa correctamente el comportamiento de Stack (LIFO)
+ * Mantiene el comportamiento LIFO sobre una máscara de bits (ver TowerBits):
+ * el bit (tamaño - 1) está activo si el disco está en la torre y el tope es el bit más bajo
  */
 public class Tower {
-    private Stack<Discs> discs;
+    private long discMask;          // Discos presentes como máscara de bits
+    private Discs[] discsBySize;    // Disco asociado a cada bit de la máscara
     private String name;
     private double x;
     private double y;
@@ -19,6 +20,18 @@ public class Tower {
     public static final double TOWER_HEIGHT = 300.0;
     public static final double TOWER_BASE_WIDTH = 200.0;
 
+    /**
+     * Visitante para recorrer los discos sin copiar ni modificar la torre
+     */
+    @FunctionalInterface
+    public interface DiscVisitor {
+        /**
+         * @param disc Disco visitado
+         * @param level Nivel del disco desde la base (0 = base)
+         */
+        void visit(Discs disc, int level);
+    }
+
     /**
      * Constructor de la torre
      */
@@ -29,7 +42,8 @@ public class Tower {
         this.maxCapacity = maxCapacity;
         this.baseWidth = TOWER_BASE_WIDTH;
         this.height = TOWER_HEIGHT;
-        this.discs = new Stack<>();
+        this.discMask = 0L;
+        this.discsBySize = new Discs[HanoiGame.MAX_DISCS];
     }
 
     /**
@@ -42,21 +56,24 @@ public class Tower {
             return false;
         }
 
+        int size = disc.getSize();
+        if (size < 1 || size > discsBySize.length) {
+            return false;
+        }
+
         // Verificar capacidad máxima
-        if (discs.size() >= maxCapacity) {
+        if (TowerBits.count(discMask) >= maxCapacity) {
             return false;
         }
 
-        // Verificar regla del juego usando solo operaciones Stack
-        if (!discs.empty()) {
-            Discs topDisc = discs.peek(); // ✅ Operación Stack correcta
-            if (!disc.canBePlacedOn(topDisc)) {
-                return false;
-            }
+        // Verificar regla del juego: el tope debe ser mayor que el disco
+        if (!TowerBits.canPlace(size, discMask)) {
+            return false;
         }
 
         // Colocar el disco
-        discs.push(disc); // ✅ Operación Stack correcta
+        discMask = TowerBits.push(discMask, size);
+        discsBySize[size - 1] = disc;
         updateDiscPosition(disc);
         return true;
     }
@@ -66,10 +83,15 @@ public class Tower {
      * @return Disco removido, null si la torre está vacía
      */
     public Discs popDisc() {
-        if (discs.empty()) { // ✅ Usar empty() en lugar de isEmpty()
+        if (TowerBits.isEmpty(discMask)) {
             return null;
         }
-        return discs.pop(); // ✅ Operación Stack correcta
+
+        int index = TowerBits.top(discMask) - 1;
+        Discs disc = discsBySize[index];
+        discsBySize[index] = null;
+        discMask = TowerBits.pop(discMask);
+        return disc;
     }
 
     /**
@@ -77,10 +99,10 @@ public class Tower {
      * @return Disco superior, null si está vacía
      */
     public Discs peekDisc() {
-        if (discs.empty()) {
+        if (TowerBits.isEmpty(discMask)) {
             return null;
         }
-        return discs.peek(); // ✅ Operación Stack correcta
+        return discsBySize[TowerBits.top(discMask) - 1];
     }
 
     /**
@@ -93,35 +115,25 @@ public class Tower {
         // Calcular posición X (centrado en la torre)
         double discX = x + (baseWidth - disc.getWidth()) / 2;
 
-        // ✅ Calcular posición Y correctamente
-        // El disco recién agregado está en el tope, su posición es size-1 desde la base
-        double discY = y - (discs.size() * disc.getHeight());
+        // El disco recién agregado está en el tope, su posición es count-1 desde la base
+        double discY = y - (TowerBits.count(discMask) * disc.getHeight());
 
         disc.setPosition(discX, discY);
     }
 
     /**
-     * ✅ Actualiza las posiciones de todos los discos usando Iterator (Stack-friendly)
+     * Actualiza las posiciones de todos los discos recorriendo la máscara desde la base
      */
     public void updateAllDiscPositions() {
-        if (discs.empty()) return;
-
-        // Crear array temporal para recorrer desde abajo hacia arriba
-        Discs[] tempArray = new Discs[discs.size()];
-
-        // Vaciar stack temporalmente manteniendo orden
-        Stack<Discs> tempStack = new Stack<>();
-        while (!discs.empty()) {
-            tempStack.push(discs.pop());
-        }
-
-        // Restaurar y posicionar
         int position = 1; // Posición desde la base (1 = primera posición)
-        while (!tempStack.empty()) {
-            Discs disc = tempStack.pop();
-            discs.push(disc); // Restaurar al stack original
+        long remaining = discMask;
 
-            // Calcular posición
+        while (remaining != 0) {
+            // El bit más alto es el disco más grande, es decir, el más cercano a la base
+            int size = TowerBits.bottom(remaining);
+            remaining &= ~(1L << (size - 1));
+
+            Discs disc = discsBySize[size - 1];
             double discX = x + (baseWidth - disc.getWidth()) / 2;
             double discY = y - (position * disc.getHeight());
             disc.setPosition(discX, discY);
@@ -134,76 +146,124 @@ public class Tower {
      * Verifica si la torre está vacía
      */
     public boolean isEmpty() {
-        return discs.empty(); // ✅ Usar empty() método de Stack
+        return TowerBits.isEmpty(discMask);
     }
 
     /**
      * Obtiene el número de discos en la torre
      */
     public int getDiscCount() {
-        return discs.size(); // ✅ size() es válido para Stack
+        return TowerBits.count(discMask);
     }
 
     /**
      * Verifica si la torre está llena
      */
     public boolean isFull() {
-        return discs.size() >= maxCapacity;
+        return TowerBits.count(discMask) >= maxCapacity;
+    }
+
+    /**
+     * Obtiene la máscara de bits con los discos de la torre
+     * @return Máscara donde el bit (tamaño - 1) indica que el disco está en la torre
+     */
+    public long getDiscMask() {
+        return discMask;
     }
 
     /**
-     * ✅ Método Stack-friendly para obtener información sin violar encapsulation
      * Retorna array de discos desde la base hasta el tope
      */
     public Discs[] getDiscsFromBottomToTop() {
-        if (discs.empty()) {
-            return new Discs[0];
+        Discs[] result = new Discs[TowerBits.count(discMask)];
+        getDiscsFromBottomToTop(result);
+        return result;
+    }
+
+    /**
+     * Copia los discos desde la base hasta el tope en un array reutilizable
+     * @param target Array destino (al menos getDiscCount() posiciones)
+     * @return Número de discos copiados
+     */
+    public int getDiscsFromBottomToTop(Discs[] target) {
+        long remaining = discMask;
+        int index = 0;
+
+        while (remaining != 0) {
+            int size = TowerBits.bottom(remaining);
+            remaining &= ~(1L << (size - 1));
+            target[index++] = discsBySize[size - 1];
         }
 
-        Discs[] result = new Discs[discs.size()];
-        Stack<Discs> tempStack = new Stack<>();
+        return index;
+    }
 
-        // Vaciar a temporal
-        while (!discs.empty()) {
-            tempStack.push(discs.pop());
+    /**
+     * Obtiene el disco en un nivel sin modificar la torre
+     * @param level Nivel desde la base (0 = base)
+     * @return Disco en ese nivel, null si el nivel está vacío
+     */
+    public Discs getDiscAt(int level) {
+        int size = TowerBits.sizeAt(discMask, level);
+        return size == 0 ? null : discsBySize[size - 1];
+    }
+
+    /**
+     * Obtiene el disco de un tamaño si está en esta torre
+     * @param size Tamaño del disco
+     * @return Disco de ese tamaño, null si no está en la torre
+     */
+    public Discs getDiscBySize(int size) {
+        if (size < 1 || size > discsBySize.length) {
+            return null;
         }
+        return discsBySize[size - 1];
+    }
 
-        // Llenar array y restaurar stack original
-        int index = 0;
-        while (!tempStack.empty()) {
-            Discs disc = tempStack.pop();
-            result[index++] = disc;
-            discs.push(disc); // Restaurar
+    /**
+     * Recorre los discos desde la base hasta el tope sin copiar la torre
+     * @param visitor Visitante que recibe cada disco y su nivel
+     */
+    public void forEachFromBottom(DiscVisitor visitor) {
+        long remaining = discMask;
+        int level = 0;
+
+        while (remaining != 0) {
+            int size = TowerBits.bottom(remaining);
+            remaining &= ~(1L << (size - 1));
+            visitor.visit(discsBySize[size - 1], level++);
         }
+    }
 
-        return result;
+    /**
+     * Recorre los discos desde el tope hasta la base sin copiar la torre
+     * @param visitor Visitante que recibe cada disco y su nivel
+     */
+    public void forEachFromTop(DiscVisitor visitor) {
+        int level = TowerBits.count(discMask) - 1;
+
+        for (long remaining = discMask; remaining != 0; remaining = TowerBits.pop(remaining)) {
+            visitor.visit(discsBySize[TowerBits.top(remaining) - 1], level--);
+        }
     }
 
     /**
-     * ✅ Método para obtener representación visual respetando Stack
+     * Obtiene la representación textual de la torre desde el tope hasta la base
      */
     public String getStackRepresentation() {
-        if (discs.empty()) {
+        if (TowerBits.isEmpty(discMask)) {
             return "Torre " + name + ": [Vacía]";
         }
 
         StringBuilder sb = new StringBuilder();
         sb.append("Torre ").append(name).append(" (tope → base):\n");
 
-        Stack<Discs> tempStack = new Stack<>();
-
-        // Vaciar mostrando desde tope hacia base
-        while (!discs.empty()) {
-            Discs disc = discs.pop();
-            tempStack.push(disc);
+        // Recorrer del bit más bajo (tope) al más alto (base)
+        for (long remaining = discMask; remaining != 0; remaining = TowerBits.pop(remaining)) {
+            Discs disc = discsBySize[TowerBits.top(remaining) - 1];
             sb.append("  ").append(disc.toString()).append("\n");
         }
 
-        // Restaurar stack original
-        while (!tempStack.empty()) {
-            discs.push(tempStack.pop());
-        }
-
         return sb.toString();
     }
 
@@ -211,27 +271,19 @@ public class Tower {
      * Verifica si un movimiento desde esta torre es válido
      */
     public boolean canMoveTo(Tower targetTower) {
-        if (this.isEmpty()) {
-            return false;
-        }
-
         if (targetTower.isFull()) {
             return false;
         }
 
-        Discs movingDisc = this.peekDisc(); // ✅ Solo peek, no acceso directo
-        Discs targetTopDisc = targetTower.peekDisc();
-
-        return movingDisc.canBePlacedOn(targetTopDisc);
+        return TowerBits.canMove(this.discMask, targetTower.discMask);
     }
 
     /**
-     * ✅ Limpia todos los discos respetando Stack operations
+     * Limpia todos los discos de la torre
      */
     public void clear() {
-        while (!discs.empty()) {
-            discs.pop();
-        }
+        discMask = 0L;
+        Arrays.fill(discsBySize, null);
     }
 
     // Getters básicos
@@ -249,7 +301,7 @@ public class Tower {
 
     @Override
     public String toString() {
-        return "Torre " + name + " [discos=" + discs.size() +
+        return "Torre " + name + " [discos=" + getDiscCount() +
                 ", capacidad=" + maxCapacity + "]";
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package Methods.Models;
+
+/**
+ * Operaciones sobre torres representadas como máscaras de bits (bitboard)
+ * Cada torre es un long donde el bit (tamaño - 1) indica que ese disco está en ella;
+ * como los discos siempre están ordenados, el disco superior es el bit activo más bajo
+ */
+public final class TowerBits {
+
+    private TowerBits() {
+    }
+
+    /**
+     * Verifica si la torre está vacía
+     * @param tower Máscara de la torre
+     * @return true si no tiene discos
+     */
+    public static boolean isEmpty(long tower) {
+        return tower == 0;
+    }
+
+    /**
+     * Obtiene el número de discos de la torre
+     * @param tower Máscara de la torre
+     * @return Número de discos
+     */
+    public static int count(long tower) {
+        return Long.bitCount(tower);
+    }
+
+    /**
+     * Obtiene el tamaño del disco superior
+     * @param tower Máscara de la torre
+     * @return Tamaño del disco superior, 0 si está vacía
+     */
+    public static int top(long tower) {
+        return tower == 0 ? 0 : Long.numberOfTrailingZeros(tower) + 1;
+    }
+
+    /**
+     * Obtiene el tamaño del disco de la base
+     * @param tower Máscara de la torre
+     * @return Tamaño del disco inferior, 0 si está vacía
+     */
+    public static int bottom(long tower) {
+        return 64 - Long.numberOfLeadingZeros(tower);
+    }
+
+    /**
+     * Obtiene el tamaño del disco en un nivel contado desde la base
+     * El nivel L es el bit activo (discos - 1 - L) empezando por el más bajo; Long.expand
+     * lo selecciona directamente, sin retirar uno a uno los discos de encima
+     * @param tower Máscara de la torre
+     * @param level Nivel desde la base (0 = base)
+     * @return Tamaño del disco, 0 si el nivel está vacío
+     */
+    public static int sizeAt(long tower, int level) {
+        int count = Long.bitCount(tower);
+        if (level < 0 || level >= count) {
+            return 0;
+        }
+        return Long.numberOfTrailingZeros(Long.expand(1L << (count - 1 - level), tower)) + 1;
+    }
+
+    /**
+     * Verifica si un disco puede colocarse sobre la torre
+     * @param size Tamaño del disco
+     * @param tower Máscara de la torre destino
+     * @return true si la torre está vacía o su disco superior es mayor
+     */
+    public static boolean canPlace(int size, long tower) {
+        // Todos los bits por debajo del disco (incluido) deben estar libres
+        return (tower & (-1L >>> (64 - size))) == 0;
+    }
+
+    /**
+     * Verifica si el disco superior de una torre puede moverse a otra
+     * @param from Máscara de la torre origen
+     * @param to Máscara de la torre destino
+     * @return true si el movimiento es válido
+     */
+    public static boolean canMove(long from, long to) {
+        // numberOfTrailingZeros(0) = 64, así que una torre vacía siempre acepta
+        return from != 0 && Long.numberOfTrailingZeros(from) < Long.numberOfTrailingZeros(to);
+    }
+
+    /**
+     * Coloca un disco sobre la torre (sin validar)
+     * @param tower Máscara de la torre
+     * @param size Tamaño del disco
+     * @return Nueva máscara
+     */
+    public static long push(long tower, int size) {
+        return tower | (1L << (size - 1));
+    }
+
+    /**
+     * Retira el disco superior de la torre
+     * @param tower Máscara de la torre
+     * @return Nueva máscara
+     */
+    public static long pop(long tower) {
+        return tower & (tower - 1);
+    }
+}
@@ -20,9 +20,14 @@ public class Animations {
     private static final Duration LIFT_DURATION = Duration.millis(300);
     private static final Duration MOVE_DURATION = Duration.millis(500);
     private static final Duration DROP_DURATION = Duration.millis(300);
+    /** Duración de un movimiento completo a velocidad 1× (subir, mover y bajar), en milisegundos */
+    public static final double MOVEMENT_MILLIS =
+            LIFT_DURATION.toMillis() + MOVE_DURATION.toMillis() + DROP_DURATION.toMillis();
 
     private boolean animationInProgress;
+    private double movementDuration = MOVEMENT_MILLIS;     // Duración de un movimiento completo (ms)
     private Map<Rectangle, SequentialTransition> activeAnimations;
+    private DiscVisuals discVisuals;
 
     /**
      * Constructor de la clase Animations
@@ -32,20 +37,31 @@ public class Animations {
         this.activeAnimations = new HashMap<>();
     }
 
+    /**
+     * Anima el movimiento de un disco con la duración configurada en setAnimationDuration
+     * @param disc Disco a mover
+     * @param fromTower Torre origen
+     * @param toTower Torre destino
+     */
+    public void animateDiscMovement(Discs disc, Tower fromTower, Tower toTower) {
+        animateDiscMovement(disc, fromTower, toTower, movementDuration);
+    }
+
     /**
      * Anima el movimiento completo de un disco de una torre a otra
+     * Las fases (subir, mover, bajar) conservan su proporción dentro de la duración
      * @param disc Disco a mover
      * @param fromTower Torre origen
      * @param toTower Torre destino
-     * @param duration Duración total de la animación
+     * @param duration Duración total de la animación en milisegundos
      */
     public void animateDiscMovement(Discs disc, Tower fromTower, Tower toTower, double duration) {
-        if (disc == null || fromTower == null || toTower == null) {
+        if (disc == null || fromTower == null || toTower == null || discVisuals == null) {
             return;
         }
 
         animationInProgress = true;
-        Rectangle visual = disc.getVisual();
+        Rectangle visual = discVisuals.getVisual(disc);
 
         // Si ya hay una animación activa para este disco, la dejamos terminar
         if (activeAnimations.containsKey(visual)) {
@@ -62,7 +78,8 @@ public class Animations {
         double endY = toTower.getY() - ((toTower.getDiscCount()) * disc.getHeight());
 
         // Crear secuencia de animaciones
-        SequentialTransition sequence = createMovementSequence(visual, startX, startY, endX, endY);
+        SequentialTransition sequence = createMovementSequence(visual, startX, startY, endX, endY,
+                duration / MOVEMENT_MILLIS);
 
         // Guardar la animación en el mapa de animaciones activas
         activeAnimations.put(visual, sequence);
@@ -90,21 +107,22 @@ public class Animations {
      * @param startY Posición Y inicial
      * @param endX Posición X final
      * @param endY Posición Y final
+     * @param scale Factor aplicado a la duración de cada fase
      * @return SequentialTransition con todas las animaciones
      */
     private SequentialTransition createMovementSequence(Rectangle visual,
                                                         double startX, double startY,
-                                                        double endX, double endY) {
+                                                        double endX, double endY, double scale) {
         SequentialTransition sequence = new SequentialTransition();
 
         // 1. Animación de elevación (subir)
-        Timeline liftAnimation = createLiftAnimation(visual, startY);
+        Timeline liftAnimation = createLiftAnimation(visual, startY, LIFT_DURATION.multiply(scale));
 
         // 2. Animación horizontal (mover de lado)
-        Timeline horizontalAnimation = createHorizontalAnimation(visual, startX, endX);
+        Timeline horizontalAnimation = createHorizontalAnimation(visual, startX, endX, MOVE_DURATION.multiply(scale));
 
         // 3. Animación de descenso (bajar)
-        Timeline dropAnimation = createDropAnimation(visual, endY);
+        Timeline dropAnimation = createDropAnimation(visual, endY, DROP_DURATION.multiply(scale));
 
         sequence.getChildren().addAll(liftAnimation, horizontalAnimation, dropAnimation);
 
@@ -115,16 +133,17 @@ public class Animations {
      * Crea la animación de elevación del disco
      * @param visual Elemento a animar
      * @param startY Posición Y inicial
+     * @param duration Duración de la fase
      * @return Timeline de elevación
      */
-    private Timeline createLiftAnimation(Rectangle visual, double startY) {
+    private Timeline createLiftAnimation(Rectangle visual, double startY, Duration duration) {
         Timeline liftTimeline = new Timeline();
 
         // Calcular altura de elevación relativa
         double targetY = startY - LIFT_HEIGHT;
 
         KeyValue keyValue = new KeyValue(visual.yProperty(), targetY, Interpolator.EASE_OUT);
-        KeyFrame keyFrame = new KeyFrame(LIFT_DURATION, keyValue);
+        KeyFrame keyFrame = new KeyFrame(duration, keyValue);
 
         liftTimeline.getKeyFrames().add(keyFrame);
 
@@ -136,13 +155,14 @@ public class Animations {
      * @param visual Elemento a animar
      * @param startX Posición X inicial
      * @param endX Posición X final
+     * @param duration Duración de la fase
      * @return Timeline de movimiento horizontal
      */
-    private Timeline createHorizontalAnimation(Rectangle visual, double startX, double endX) {
+    private Timeline createHorizontalAnimation(Rectangle visual, double startX, double endX, Duration duration) {
         Timeline horizontalTimeline = new Timeline();
 
         KeyValue keyValue = new KeyValue(visual.xProperty(), endX, Interpolator.EASE_BOTH);
-        KeyFrame keyFrame = new KeyFrame(MOVE_DURATION, keyValue);
+        KeyFrame keyFrame = new KeyFrame(duration, keyValue);
 
         horizontalTimeline.getKeyFrames().add(keyFrame);
 
@@ -153,13 +173,14 @@ public class Animations {
      * Crea la animación de descenso del disco
      * @param visual Elemento a animar
      * @param endY Posición Y final
+     * @param duration Duración de la fase
      * @return Timeline de descenso
      */
-    private Timeline createDropAnimation(Rectangle visual, double endY) {
+    private Timeline createDropAnimation(Rectangle visual, double endY, Duration duration) {
         Timeline dropTimeline = new Timeline();
 
         KeyValue keyValue = new KeyValue(visual.yProperty(), endY, Interpolator.EASE_IN);
-        KeyFrame keyFrame = new KeyFrame(DROP_DURATION, keyValue);
+        KeyFrame keyFrame = new KeyFrame(duration, keyValue);
 
         dropTimeline.getKeyFrames().add(keyFrame);
 
@@ -203,7 +224,8 @@ public class Animations {
      * @param delay Retraso antes de iniciar la animación
      */
     public void animateDiscAppearance(Discs disc, double delay) {
-        Rectangle visual = disc.getVisual();
+        if (discVisuals == null) return;
+        Rectangle visual = discVisuals.getVisual(disc);
 
         // Iniciar invisible y pequeño
         visual.setOpacity(0.0);
@@ -229,7 +251,7 @@ public class Animations {
      * @param onFinished Callback al terminar
      */
     public void animateDiscDisappearance(Discs[] discs, Runnable onFinished) {
-        if (discs == null || discs.length == 0) {
+        if (discs == null || discs.length == 0 || discVisuals == null) {
             if (onFinished != null) onFinished.run();
             return;
         }
@@ -237,7 +259,7 @@ public class Animations {
         ParallelTransition disappearance = new ParallelTransition();
 
         for (int i = 0; i < discs.length; i++) {
-            Rectangle visual = discs[i].getVisual();
+            Rectangle visual = discVisuals.getVisual(discs[i]);
 
             FadeTransition fadeOut = new FadeTransition(Duration.millis(300), visual);
             fadeOut.setToValue(0.0);
@@ -258,10 +280,10 @@ public class Animations {
      * @param discs Discos de la torre ganadora
      */
     public void animateVictory(Discs[] discs) {
-        if (discs == null || discs.length == 0) return;
+        if (discs == null || discs.length == 0 || discVisuals == null) return;
 
         for (int i = 0; i < discs.length; i++) {
-            Rectangle visual = discs[i].getVisual();
+            Rectangle visual = discVisuals.getVisual(discs[i]);
 
             // Animación de celebración escalonada
             Timeline celebration = new Timeline();
@@ -302,16 +324,31 @@ public class Animations {
         animationInProgress = false;
     }
 
+    /**
+     * Establece el mapeo entre discos del modelo y sus rectángulos
+     * @param discVisuals Representaciones visuales compartidas con la vista
+     */
+    public void setDiscVisuals(DiscVisuals discVisuals) {
+        this.discVisuals = discVisuals;
+    }
+
     // Getters
     public boolean isAnimationInProgress() {
         return animationInProgress;
     }
 
     /**
-     * Establece la duración base de las animaciones
+     * Establece la duración de los movimientos de disco
      * @param duration Nueva duración en milisegundos
      */
     public void setAnimationDuration(double duration) {
-        // Implementación si se requiere configuración dinámica
+        if (!(duration > 0)) {
+            throw new IllegalArgumentException("La duración de la animación debe ser positiva");
+        }
+        this.movementDuration = duration;
+    }
+
+    public double getAnimationDuration() {
+        return movementDuration;
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package View;
+
+import Methods.Models.Tower;
+import Methods.Models.TowerBits;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.Arrays;
+
+/**
+ * Dibujo inmediato del juego sobre un único Canvas
+ * Alternativa a los rectángulos del grafo de escena para muchos discos: el grafo
+ * no crece con el número de discos y no hay pases de CSS ni de layout por disco.
+ * Cada torre ocupa una columna del lienzo; al dibujar solo se repintan las columnas
+ * cuya máscara de discos ha cambiado desde el último dibujo (en un movimiento, dos).
+ * Los discos se escalan para que quepan hasta 63 en la altura disponible
+ */
+public class CanvasRenderer {
+
+    private static final double TOP_MARGIN = 20.0;
+    private static final double BOTTOM_MARGIN = 40.0;      // Espacio para la etiqueta bajo la base
+    private static final double COLUMN_PADDING = 10.0;
+    private static final double BASE_HEIGHT = 20.0;
+    private static final double POLE_WIDTH = 8.0;
+    private static final double MAX_DISC_HEIGHT = 20.0;
+    private static final double MIN_DISC_WIDTH = 20.0;
+    private static final double MIN_OUTLINED_HEIGHT = 6.0; // Por debajo, el borde taparía el color
+    private static final Color BACKGROUND = Color.web("#333333");
+    private static final Font LABEL_FONT = Font.font("Arial", FontWeight.BOLD, 20);
+
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private long[] drawnMasks = new long[0];
+    private int drawnDiscCount = -1;
+    private long repaintedColumns;
+
+    /**
+     * Constructor del renderizador
+     * @param width Ancho del lienzo
+     * @param height Alto del lienzo
+     */
+    public CanvasRenderer(double width, double height) {
+        this.canvas = new Canvas(width, height);
+        this.graphics = canvas.getGraphicsContext2D();
+    }
+
+    /**
+     * Dibuja el estado de las torres repintando solo las columnas que han cambiado
+     * @param towers Torres del juego, en orden
+     */
+    public void render(Tower[] towers) {
+        if (towers == null || towers.length == 0) {
+            return;
+        }
+
+        // Un juego distinto (otro número de torres o de discos) cambia la escala: se repinta todo
+        int discCount = 0;
+        for (Tower tower : towers) {
+            discCount += TowerBits.count(tower.getDiscMask());
+        }
+        if (towers.length != drawnMasks.length || discCount != drawnDiscCount) {
+            drawnMasks = new long[towers.length];
+            drawnDiscCount = discCount;
+            graphics.setFill(BACKGROUND);
+            graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int i = 0; i < towers.length; i++) {
+                paintColumn(i, towers[i]);
+            }
+            return;
+        }
+
+        for (int i = 0; i < towers.length; i++) {
+            if (towers[i].getDiscMask() != drawnMasks[i]) {
+                paintColumn(i, towers[i]);
+            }
+        }
+    }
+
+    /**
+     * Obliga a repintar todo el lienzo en el siguiente dibujo
+     */
+    public void invalidate() {
+        Arrays.fill(drawnMasks, -1L);
+        drawnDiscCount = -1;
+    }
+
+    /**
+     * Repinta la columna de una torre: fondo, poste, base, etiqueta y discos
+     */
+    private void paintColumn(int index, Tower tower) {
+        double columnWidth = canvas.getWidth() / drawnMasks.length;
+        double left = index * columnWidth;
+        double baseWidth = columnWidth - 2 * COLUMN_PADDING;
+        double centerX = left + columnWidth / 2;
+        double baseY = canvas.getHeight() - BOTTOM_MARGIN - BASE_HEIGHT;
+
+        // Región sucia: la columna completa
+        graphics.setFill(BACKGROUND);
+        graphics.fillRect(left, 0, columnWidth, canvas.getHeight());
+
+        graphics.setFill(Color.BROWN);
+        graphics.fillRect(centerX - POLE_WIDTH / 2, TOP_MARGIN, POLE_WIDTH, baseY - TOP_MARGIN);
+        graphics.setFill(Color.DARKGRAY);
+        graphics.fillRoundRect(left + COLUMN_PADDING, baseY, baseWidth, BASE_HEIGHT, 15, 15);
+        graphics.setFill(Color.WHITE);
+        graphics.setFont(LABEL_FONT);
+        graphics.fillText(tower.getName(), centerX - 6, baseY + BASE_HEIGHT + 28);
+
+        // Discos de abajo arriba, escalados al espacio disponible
+        int discCount = Math.max(1, drawnDiscCount);
+        double discHeight = Math.min(MAX_DISC_HEIGHT, (baseY - TOP_MARGIN) / discCount);
+        double widthStep = (baseWidth - MIN_DISC_WIDTH) / discCount;
+        boolean outlined = discHeight >= MIN_OUTLINED_HEIGHT;
+        graphics.setStroke(Color.BLACK);
+        graphics.setLineWidth(1);
+
+        long mask = tower.getDiscMask();
+        long remaining = mask;
+        double y = baseY;
+        while (remaining != 0) {
+            int size = TowerBits.bottom(remaining);
+            remaining &= ~(1L << (size - 1));
+
+            double width = MIN_DISC_WIDTH + size * widthStep;
+            y -= discHeight;
+            graphics.setFill(DiscVisuals.getColor(size));
+            if (outlined) {
+                graphics.fillRoundRect(centerX - width / 2, y, width, discHeight, 6, 6);
+                graphics.strokeRoundRect(centerX - width / 2, y, width, discHeight, 6, 6);
+            } else {
+                graphics.fillRect(centerX - width / 2, y, width, discHeight);
+            }
+        }
+
+        drawnMasks[index] = mask;
+        repaintedColumns++;
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * @return Columnas repintadas desde que se creó el renderizador
+     */
+    public long getRepaintedColumns() {
+        return repaintedColumns;
+    }
+}
@@ -0,0 +1,92 @@
+package View;
+
+import Methods.Models.Discs;
+import Methods.Models.HanoiGame;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Clase que asocia cada disco del modelo con su representación visual
+ * Los rectángulos se crean una sola vez por tamaño y se reutilizan entre partidas
+ */
+public class DiscVisuals {
+
+    private final Rectangle[] visualsBySize;
+
+    /**
+     * Constructor de DiscVisuals
+     */
+    public DiscVisuals() {
+        this.visualsBySize = new Rectangle[HanoiGame.MAX_DISCS];
+    }
+
+    /**
+     * Obtiene (o crea) el rectángulo asociado a un disco
+     * @param disc Disco del modelo
+     * @return Rectángulo que lo representa
+     */
+    public Rectangle getVisual(Discs disc) {
+        int index = disc.getSize() - 1;
+        Rectangle visual = visualsBySize[index];
+        if (visual == null) {
+            visual = createVisualRepresentation(disc);
+            visualsBySize[index] = visual;
+        }
+        return visual;
+    }
+
+    /**
+     * Coloca el rectángulo en la posición que el modelo calculó para el disco
+     * @param disc Disco del modelo
+     * @return Rectángulo actualizado
+     */
+    public Rectangle place(Discs disc) {
+        Rectangle visual = getVisual(disc);
+        visual.setX(disc.getX());
+        visual.setY(disc.getY());
+        visual.setTranslateY(0);
+        visual.setOpacity(1.0);
+        return visual;
+    }
+
+    /**
+     * Crea la representación visual del disco
+     * @param disc Disco del modelo
+     * @return Nuevo rectángulo
+     */
+    private Rectangle createVisualRepresentation(Discs disc) {
+        Rectangle visual = new Rectangle(disc.getWidth(), disc.getHeight());
+        visual.setFill(getColor(disc.getSize()));
+        visual.setStroke(Color.BLACK);
+        visual.setStrokeWidth(2);
+        visual.setArcWidth(10);
+        visual.setArcHeight(10);
+        return visual;
+    }
+
+    /**
+     * Genera un color único para cada tamaño de disco
+     * Los seis primeros tamaños usan la paleta fija; a partir del séptimo
+     * se reparte el tono con el ángulo áureo para admitir hasta 63 discos
+     * @param size Tamaño del disco
+     * @return Color asignado al disco
+     */
+    public static Color getColor(int size) {
+        Color[] colors = {
+                Color.RED,      // Tamaño 1
+                Color.BLUE,     // Tamaño 2
+                Color.GREEN,    // Tamaño 3
+                Color.YELLOW,   // Tamaño 4
+                Color.PURPLE,   // Tamaño 5
+                Color.ORANGE    // Tamaño 6
+        };
+
+        if (size >= 1 && size <= colors.length) {
+            return colors[size - 1];
+        }
+        if (size > colors.length) {
+            return Color.hsb((size * 137.508) % 360.0, 0.7, 0.9);
+        }
+        return Color.GRAY; // Color por defecto
+    }
+}
@@ -0,0 +1,62 @@
+package View;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.function.LongFunction;
+
+/**
+ * Lista observable del historial de movimientos que no guarda texto
+ * Cada fila se genera al pedirla a partir del registro compacto del juego, así que
+ * un ListView (que solo pide las filas visibles) muestra historiales de millones
+ * de movimientos con memoria constante. Solo se anota el número de filas; al crecer
+ * se notifica un único cambio por todo el tramo añadido
+ */
+class MoveHistoryList extends ObservableListBase<String> {
+
+    private LongFunction<String> describer;
+    private int size;
+
+    /**
+     * Cambia el origen de las filas (por ejemplo, al empezar otro juego) y vacía la lista
+     * @param describer Función que describe el movimiento de índice i (desde 0), o null
+     */
+    void setSource(LongFunction<String> describer) {
+        resize(0);
+        this.describer = describer;
+    }
+
+    /**
+     * Ajusta el número de filas al número de movimientos registrados
+     * @param moves Movimientos registrados (las filas se limitan a Integer.MAX_VALUE)
+     */
+    void resize(long moves) {
+        int newSize = (int) Math.min(Integer.MAX_VALUE, Math.max(0, moves));
+        if (newSize == size) {
+            return;
+        }
+
+        beginChange();
+        if (newSize > size) {
+            nextAdd(size, newSize);
+        } else {
+            // Las filas quitadas no se conservan; basta con indicar cuántas eran
+            nextRemove(newSize, Collections.nCopies(size - newSize, ""));
+        }
+        size = newSize;
+        endChange();
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Fila fuera de rango: " + index);
+        }
+        return describer.apply(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
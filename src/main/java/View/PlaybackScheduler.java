@@ -0,0 +1,239 @@
+package View;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.HanoiSolver;
+import javafx.animation.AnimationTimer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Reproductor de soluciones al ritmo de la interfaz
+ * El motor de resolución produce movimientos a toda velocidad en una cola acotada
+ * (Feed) desde su propio hilo, y este temporizador los consume en el pulso de JavaFX:
+ * aplica un movimiento al juego cada cierto intervalo y deja que el callback del
+ * juego lo anime. Así el tiempo de resolución y el de reproducción son independientes,
+ * el hilo de resolución nunca duerme y cancelar es inmediato.
+ * La velocidad se puede cambiar en cualquier momento (de MIN_SPEED a MAX_SPEED).
+ * Cuando el intervalo entre movimientos baja de MIN_ANIMATED_INTERVAL_MILLIS ya no hay
+ * tiempo para animar cada uno: en cada pulso se aplican todos los movimientos que
+ * tocan y solo se dibuja el estado final (un fotograma clave).
+ * Los movimientos viajan como (origen << 4 | destino), valores que Integer.valueOf
+ * guarda en caché, así que la cola no crea objetos por movimiento
+ */
+public class PlaybackScheduler extends AnimationTimer {
+
+    static final int DEFAULT_CAPACITY = 1024;   // Movimientos adelantados como máximo
+    public static final double MIN_SPEED = 0.25;
+    public static final double MAX_SPEED = 10_000.0;
+    static final double MIN_ANIMATED_INTERVAL_MILLIS = 100.0;
+    static final int MAX_MOVES_PER_FRAME = 1 << 14;     // Acota el trabajo de un pulso
+    private static final int END_OF_SOLUTION = -1;
+    private static final int PEG_BITS = 4;
+    private static final int PEG_MASK = (1 << PEG_BITS) - 1;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final int capacity;
+    private BlockingQueue<Integer> queue;
+    private HanoiGame game;
+    private Runnable onFinished;
+    private Runnable onKeyframe;
+    private double speed = 1.0;
+    private long baseIntervalNanos;
+    private long initialDelayNanos;
+    private long nextMoveAt;
+    private boolean playing;
+    private boolean skippingFrames;
+
+    /**
+     * Extremo productor de la cola: lo usa el hilo del motor de resolución
+     * Si ese hilo se interrumpe mientras espera sitio, la resolución se corta
+     * con una CancellationException
+     */
+    public static final class Feed implements HanoiSolver.MoveSink {
+        private final BlockingQueue<Integer> queue;
+
+        private Feed(BlockingQueue<Integer> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void accept(int disc, int from, int to) {
+            put(from << PEG_BITS | to);
+        }
+
+        /**
+         * Marca el final de la solución; la reproducción termina al llegar a ella
+         */
+        public void finish() {
+            put(END_OF_SOLUTION);
+        }
+
+        private void put(int code) {
+            try {
+                queue.put(code);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Simulación cancelada");
+            }
+        }
+    }
+
+    /**
+     * Constructor con la capacidad de cola por defecto
+     */
+    public PlaybackScheduler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor del reproductor
+     * @param capacity Movimientos que el motor puede adelantarse a la reproducción
+     */
+    public PlaybackScheduler(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad de la cola debe ser positiva");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Empieza a reproducir sobre un juego los movimientos que lleguen por la cola
+     * Cada reproducción usa una cola nueva, así que un productor cancelado que
+     * aún escriba no afecta a la siguiente
+     * @param game Juego al que se aplican los movimientos (en el hilo de JavaFX)
+     * @param intervalMillis Tiempo entre un movimiento y el siguiente
+     * @param initialDelayMillis Espera antes del primer movimiento
+     * @param onFinished Acción al terminar la solución (no se llama si se cancela)
+     * @return Extremo productor para el motor de resolución
+     */
+    public Feed play(HanoiGame game, double intervalMillis, double initialDelayMillis, Runnable onFinished) {
+        cancel();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.game = game;
+        this.onFinished = onFinished;
+        this.baseIntervalNanos = (long) (intervalMillis * NANOS_PER_MILLI);
+        this.initialDelayNanos = (long) (initialDelayMillis * NANOS_PER_MILLI);
+        this.nextMoveAt = -1;
+        this.playing = true;
+        start();
+        return new Feed(queue);
+    }
+
+    /**
+     * Detiene la reproducción y descarta los movimientos pendientes
+     */
+    public void cancel() {
+        stop();
+        playing = false;
+        skippingFrames = false;
+        if (queue != null) {
+            queue.clear();
+            queue = null;
+        }
+        game = null;
+        onFinished = null;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (!playing) {
+            return;
+        }
+        if (nextMoveAt < 0) {
+            nextMoveAt = now + initialDelayNanos;
+        }
+        if (now < nextMoveAt) {
+            return;
+        }
+
+        // Movimientos cuyo momento ya ha llegado (más de uno si la velocidad es alta)
+        long interval = getIntervalNanos();
+        long behind = (now - nextMoveAt) / interval + 1;
+        long due = Math.min(MAX_MOVES_PER_FRAME, behind);
+        skippingFrames = interval < MIN_ANIMATED_INTERVAL_MILLIS * NANOS_PER_MILLI;
+
+        long applied = 0;
+        boolean finished = false;
+        while (applied < due) {
+            // Si el motor aún no ha producido el siguiente movimiento, se espera al próximo pulso
+            Integer code = queue.poll();
+            if (code == null) {
+                break;
+            }
+            if (code == END_OF_SOLUTION) {
+                finished = true;
+                break;
+            }
+            game.moveDisc(code >>> PEG_BITS, code & PEG_MASK);
+            applied++;
+        }
+
+        // Un retraso (cola vacía o pulso acotado) no se recupera de golpe después
+        nextMoveAt = applied == behind ? nextMoveAt + applied * interval : now + interval;
+        if (skippingFrames && applied > 0 && onKeyframe != null) {
+            onKeyframe.run();
+        }
+        if (finished) {
+            Runnable done = onFinished;
+            cancel();
+            if (done != null) {
+                done.run();
+            }
+        }
+    }
+
+    /**
+     * Cambia la velocidad de reproducción; se aplica desde el siguiente movimiento
+     * @param speed Multiplicador de velocidad (1 = ritmo normal), se limita a [MIN_SPEED, MAX_SPEED]
+     */
+    public void setSpeed(double speed) {
+        if (Double.isNaN(speed)) {
+            throw new IllegalArgumentException("La velocidad debe ser un número");
+        }
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        if (playing && nextMoveAt >= 0) {
+            // No esperar el intervalo largo anterior al acelerar
+            nextMoveAt = Math.min(nextMoveAt, System.nanoTime() + getIntervalNanos());
+        }
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Establece la acción que dibuja el estado del juego tras un pulso sin animaciones
+     * @param onKeyframe Acción de dibujo, o null
+     */
+    public void setOnKeyframe(Runnable onKeyframe) {
+        this.onKeyframe = onKeyframe;
+    }
+
+    /**
+     * @return true si los movimientos se están aplicando sin animar (solo fotogramas clave)
+     */
+    public boolean isSkippingFrames() {
+        return skippingFrames;
+    }
+
+    private long getIntervalNanos() {
+        return Math.max(1, (long) (baseIntervalNanos / speed));
+    }
+
+    /**
+     * @return true si hay una reproducción en curso
+     */
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * @return Movimientos producidos que aún no se han reproducido
+     */
+    public int getPendingCount() {
+        BlockingQueue<Integer> current = queue;
+        return current == null ? 0 : current.size();
+    }
+}
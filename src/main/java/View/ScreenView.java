@@ -1,7 +1,6 @@
 package View;
 
 import Methods.Models.Tower;
-import Methods.Models.Discs;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -14,6 +13,7 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.stage.Stage;
 import java.util.List;
+import java.util.function.LongFunction;
 
 /**
  * Clase que construye y maneja la interfaz gráfica del juego
@@ -32,15 +32,22 @@ public class ScreenView {
     private Button startButton;
     private Button resetButton;
     private Button saveHistoryButton;
-    private TextArea historyArea;
+    private Slider speedSlider;
+    private Label speedLabel;
+    private ComboBox<String> rendererSelector;
+    private ListView<String> historyView;
+    private MoveHistoryList historyRows;
     private Label moveCountLabel;
     private Label gameInfoLabel;
     private ProgressBar progressBar;
 
     // Elementos visuales del juego
+    private DiscVisuals discVisuals;
     private Rectangle[] towerBases;
     private Line[] towerPoles;
     private Label[] towerLabels;
+    private CanvasRenderer canvasRenderer;      // Se crea al elegir la vista de lienzo
+    private boolean canvasRendering;
 
     // Dimensiones y configuración
     private static final double WINDOW_WIDTH = 1000.0;
@@ -50,6 +57,18 @@ public class ScreenView {
     private static final double TOWER_BASE_HEIGHT = 20.0;
     private static final double TOWER_POLE_HEIGHT = 300.0;
     private static final double TOWER_SPACING = 250.0;
+    public static final String NODE_RENDERER = "Nodos";
+    public static final String CANVAS_RENDERER = "Lienzo";
+    // Discos seleccionables: con 20 son 1.048.575 movimientos, unos 2,6 minutos a la velocidad máxima
+    private static final int MIN_SELECTABLE_DISCS = 3;
+    private static final int MAX_SELECTABLE_DISCS = 20;
+    // Con más discos los rectángulos (40 + 30 px por tamaño) no caben entre las torres
+    public static final int MAX_NODE_DISCS = 6;
+    private static final double HISTORY_ROW_HEIGHT = 20.0;  // Altura fija: el ListView no mide cada fila
+
+    // Velocidad de reproducción: el deslizador va en escala logarítmica (10^valor)
+    private static final double MIN_SPEED_EXPONENT = Math.log10(PlaybackScheduler.MIN_SPEED);
+    private static final double MAX_SPEED_EXPONENT = Math.log10(PlaybackScheduler.MAX_SPEED);
 
     /**
      * Constructor de la pantalla principal
@@ -78,17 +97,30 @@ public class ScreenView {
 
         // Inicializar controles
         discSelector = new ComboBox<>();
-        discSelector.getItems().addAll(3, 4, 5, 6);
-        discSelector.setValue(3);
+        for (int discs = MIN_SELECTABLE_DISCS; discs <= MAX_SELECTABLE_DISCS; discs++) {
+            discSelector.getItems().add(discs);
+        }
+        discSelector.setValue(MIN_SELECTABLE_DISCS);
         discSelector.setPromptText("Número de discos");
 
         startButton = new Button("Iniciar Simulación");
         resetButton = new Button("Reiniciar Juego");
         saveHistoryButton = new Button("Guardar Historial");
 
-        historyArea = new TextArea();
-        historyArea.setEditable(false);
-        historyArea.setPrefRowCount(15);
+        speedSlider = new Slider(MIN_SPEED_EXPONENT, MAX_SPEED_EXPONENT, 0);
+        speedSlider.setMajorTickUnit(1);
+        speedSlider.setBlockIncrement(0.25);
+        speedSlider.setShowTickMarks(true);
+        speedLabel = new Label(formatSpeed(1.0));
+
+        rendererSelector = new ComboBox<>();
+        rendererSelector.getItems().addAll(NODE_RENDERER, CANVAS_RENDERER);
+        rendererSelector.setValue(NODE_RENDERER);
+
+        // Historial virtualizado: solo se generan las filas visibles
+        historyRows = new MoveHistoryList();
+        historyView = new ListView<>(historyRows);
+        historyView.setFixedCellSize(HISTORY_ROW_HEIGHT);
 
         moveCountLabel = new Label("Movimientos: 0");
         gameInfoLabel = new Label("Torres de Hanoi");
@@ -96,6 +128,7 @@ public class ScreenView {
         progressBar.setPrefWidth(200);
 
         // Inicializar elementos visuales del juego
+        discVisuals = new DiscVisuals();
         initializeGameVisuals();
     }
 
@@ -183,7 +216,9 @@ public class ScreenView {
                 selectorLabel, discSelector,
                 startButton,
                 resetButton,
-                saveHistoryButton
+                saveHistoryButton,
+                speedSlider, speedLabel,
+                rendererSelector
         );
 
         return panel;
@@ -227,12 +262,9 @@ public class ScreenView {
         Label titleLabel = new Label("Historial de Movimientos");
         titleLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
 
-        ScrollPane scrollPane = new ScrollPane(historyArea);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        VBox.setVgrow(historyView, Priority.ALWAYS);
 
-        panel.getChildren().addAll(titleLabel, scrollPane);
+        panel.getChildren().addAll(titleLabel, historyView);
 
         return panel;
     }
@@ -253,7 +285,7 @@ public class ScreenView {
         gameArea.setStyle("-fx-background-color: #333333; -fx-border-color: #555555; -fx-border-width: 2px;");
 
         // Estilo para el historial
-        historyArea.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+        historyView.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
 
         // Estilo para las etiquetas
         gameInfoLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #333333;");
@@ -261,6 +293,7 @@ public class ScreenView {
 
         // Estilo para el selector de discos
         discSelector.setStyle("-fx-font-size: 14px;");
+        rendererSelector.setStyle("-fx-font-size: 14px;");
     }
 
     /**
@@ -281,27 +314,86 @@ public class ScreenView {
      * @param towers Array de torres del juego
      */
     public void drawInitialState(Tower[] towers) {
+        if (canvasRendering) {
+            // El lienzo solo repinta las torres que han cambiado
+            canvasRenderer.render(towers);
+            return;
+        }
         if (towers == null || towers.length != 3) {
             return;
         }
 
         // Limpiar discos existentes
-        gameArea.getChildren().removeIf(node ->
-                node instanceof Rectangle &&
-                        !java.util.Arrays.asList(towerBases).contains(node)
-        );
+        removeDiscVisuals();
 
         // Dibujar discos en sus posiciones iniciales
         for (Tower tower : towers) {
-            Discs[] discs = tower.getDiscsFromBottomToTop();
-            for (Discs disc : discs) {
-                Rectangle visual = disc.getVisual();
+            tower.forEachFromBottom((disc, level) -> {
+                Rectangle visual = discVisuals.place(disc);
                 if (!gameArea.getChildren().contains(visual)) {
                     // Asegurar que el disco aparezca por debajo de las etiquetas de torre
                     gameArea.getChildren().add(gameArea.getChildren().size() - 3, visual);
                 }
+            });
+        }
+    }
+
+    /**
+     * Cambia entre la vista de nodos (un rectángulo por disco) y la de lienzo
+     * @param canvas true para dibujar sobre un único Canvas
+     * @param towers Torres del juego, para dibujar el estado actual en la nueva vista
+     */
+    public void setCanvasRendering(boolean canvas, Tower[] towers) {
+        if (canvas == canvasRendering) {
+            return;
+        }
+
+        canvasRendering = canvas;
+        for (int i = 0; i < towerBases.length; i++) {
+            towerBases[i].setVisible(!canvas);
+            towerPoles[i].setVisible(!canvas);
+            towerLabels[i].setVisible(!canvas);
+        }
+
+        if (canvas) {
+            if (canvasRenderer == null) {
+                canvasRenderer = new CanvasRenderer(WINDOW_WIDTH, GAME_AREA_HEIGHT);
             }
+            removeDiscVisuals();
+            gameArea.getChildren().add(0, canvasRenderer.getCanvas());
+            canvasRenderer.invalidate();
+        } else {
+            gameArea.getChildren().remove(canvasRenderer.getCanvas());
         }
+        drawInitialState(towers);
+    }
+
+    /**
+     * Quita del área de juego los rectángulos de los discos
+     */
+    private void removeDiscVisuals() {
+        gameArea.getChildren().removeIf(node ->
+                node instanceof Rectangle &&
+                        !java.util.Arrays.asList(towerBases).contains(node)
+        );
+    }
+
+    /**
+     * Ajusta el selector de vista al número de discos
+     * Por encima de MAX_NODE_DISCS se selecciona el lienzo y el selector queda deshabilitado
+     * @param discCount Número de discos del juego
+     */
+    public void fitRendererToDiscCount(int discCount) {
+        boolean nodesFit = discCount <= MAX_NODE_DISCS;
+        if (!nodesFit) {
+            // Cambiar el valor dispara la acción del selector, que pasa la vista al lienzo
+            rendererSelector.setValue(CANVAS_RENDERER);
+        }
+        rendererSelector.setDisable(!nodesFit);
+    }
+
+    public boolean isCanvasRendering() {
+        return canvasRendering;
     }
 
     /**
@@ -326,17 +418,47 @@ public class ScreenView {
      * Actualiza el contador de movimientos
      * @param count Número actual de movimientos
      */
-    public void updateMoveCount(int count) {
+    public void updateMoveCount(long count) {
         moveCountLabel.setText("Movimientos: " + count);
     }
 
     /**
-     * Actualiza el área de historial
-     * @param text Texto a agregar
+     * Establece de dónde salen las filas del historial y lo vacía
+     * @param describer Función que describe el movimiento de índice i (desde 0)
+     */
+    public void setHistorySource(LongFunction<String> describer) {
+        historyRows.setSource(describer);
+    }
+
+    /**
+     * Muestra las filas del historial hasta el último movimiento y se desplaza al final
+     * @param moves Movimientos registrados
      */
-    public void updateHistoryArea(String text) {
-        historyArea.appendText(text + "\n");
-        historyArea.positionCaret(historyArea.getText().length());
+    public void updateHistorySize(long moves) {
+        historyRows.resize(moves);
+        if (!historyRows.isEmpty()) {
+            historyView.scrollTo(historyRows.size() - 1);
+        }
+    }
+
+    /**
+     * Muestra la velocidad de reproducción actual
+     * @param speed Multiplicador de velocidad
+     */
+    public void updateSpeed(double speed) {
+        speedLabel.setText(formatSpeed(speed));
+    }
+
+    private static String formatSpeed(double speed) {
+        return speed < 10 ? String.format("%.2f×", speed) : String.format("%.0f×", speed);
+    }
+
+    /**
+     * Convierte la posición del deslizador en un multiplicador de velocidad
+     * @return Velocidad seleccionada
+     */
+    public double getSelectedSpeed() {
+        return Math.pow(10, speedSlider.getValue());
     }
 
     /**
@@ -407,7 +529,7 @@ public class ScreenView {
      * Limpia el historial de movimientos
      */
     public void clearHistory() {
-        historyArea.clear();
+        historyRows.resize(0);
     }
 
     // Getters para acceder a los componentes desde el controlador
@@ -427,8 +549,20 @@ public class ScreenView {
         return saveHistoryButton;
     }
 
-    public TextArea getHistoryArea() {
-        return historyArea;
+    public Slider getSpeedSlider() {
+        return speedSlider;
+    }
+
+    public ComboBox<String> getRendererSelector() {
+        return rendererSelector;
+    }
+
+    public ListView<String> getHistoryView() {
+        return historyView;
+    }
+
+    public DiscVisuals getDiscVisuals() {
+        return discVisuals;
     }
 
     public Pane getGameArea() {
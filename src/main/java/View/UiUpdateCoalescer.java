@@ -0,0 +1,120 @@
+package View;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Agrupa las actualizaciones de la interfaz y las aplica una vez por pulso
+ * Los cambios del modelo (filas del historial, contador, progreso) solo se anotan;
+ * en cada pulso de JavaFX, si hay algo pendiente, se escriben de una vez en la vista.
+ * Así el texto de las etiquetas, la barra de progreso y el historial se actualizan
+ * como mucho unas 60 veces por segundo, se hagan los movimientos que se hagan.
+ * El temporizador solo corre mientras hay algo pendiente: la primera anotación lo
+ * arranca y se detiene en cuanto un pulso lo ha aplicado todo.
+ * Las anotaciones pueden llegar desde cualquier hilo
+ */
+public class UiUpdateCoalescer extends AnimationTimer {
+
+    private final ScreenView screen;
+
+    // Estado pendiente; se protege con el propio objeto
+    private long historySize = -1;          // -1 = sin cambios
+    private long moveCount = -1;
+    private double progress = -1;           // -1 = sin cambios
+    private volatile boolean dirty;
+    private boolean running;
+
+    /**
+     * Constructor del agrupador
+     * @param screen Vista en la que se aplican las actualizaciones
+     */
+    public UiUpdateCoalescer(ScreenView screen) {
+        this.screen = screen;
+    }
+
+    /**
+     * Anota el número de filas del historial (solo se muestra el último valor)
+     * @param moves Movimientos registrados
+     */
+    public synchronized void setHistorySize(long moves) {
+        historySize = moves;
+        markDirty();
+    }
+
+    /**
+     * Anota el contador de movimientos (solo se muestra el último valor)
+     * @param count Número de movimientos
+     */
+    public synchronized void setMoveCount(long count) {
+        moveCount = count;
+        markDirty();
+    }
+
+    /**
+     * Anota el progreso (solo se muestra el último valor)
+     * @param value Progreso entre 0.0 y 1.0
+     */
+    public synchronized void setProgress(double value) {
+        progress = value;
+        markDirty();
+    }
+
+    /**
+     * Marca que hay cambios pendientes y arranca el temporizador si estaba parado
+     * Se llama con el cerrojo del objeto
+     */
+    private void markDirty() {
+        dirty = true;
+        if (!running) {
+            running = true;
+            if (Platform.isFxApplicationThread()) {
+                start();
+            } else {
+                Platform.runLater(this::start);
+            }
+        }
+    }
+
+    @Override
+    public void handle(long now) {
+        // También sin cambios: flush detiene el temporizador si no queda nada pendiente
+        flush();
+    }
+
+    /**
+     * Aplica en la vista todo lo pendiente y detiene el temporizador si no queda nada
+     * (debe llamarse en el hilo de JavaFX)
+     */
+    public void flush() {
+        long rows;
+        long count;
+        double value;
+        synchronized (this) {
+            rows = historySize;
+            count = moveCount;
+            value = progress;
+            historySize = -1;
+            moveCount = -1;
+            progress = -1;
+            dirty = false;
+        }
+
+        if (rows >= 0) {
+            screen.updateHistorySize(rows);
+        }
+        if (count >= 0) {
+            screen.updateMoveCount(count);
+        }
+        if (value >= 0) {
+            screen.updateProgress(value);
+        }
+
+        // Sin anotaciones nuevas durante la aplicación, el temporizador deja de pulsar
+        synchronized (this) {
+            if (!dirty && running) {
+                running = false;
+                stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package Controller;
+
+import Methods.Models.MoveLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato comprimido por bloques
+ * Con 21 discos hay más de 2M movimientos: el historial ocupa varios bloques
+ */
+class CompressedHistoryTest {
+
+    private static final int DISCS = 21;
+
+    private Aux aux;
+    private HistoryTestSupport files;
+
+    @BeforeEach
+    void setUp() {
+        aux = new Aux();
+        files = new HistoryTestSupport(aux);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.deleteSaved();
+    }
+
+    @Test
+    void roundTripAcrossBlocks() throws IOException {
+        MoveLog log = HistoryTestSupport.solve(DISCS, 3);
+        String filename = files.saved(aux.saveHistoryToCompressedBinary(log));
+
+        Aux.GameHistoryData data = aux.readHistoryFromBinary(filename);
+        assertEquals(PackedHistoryFormat.VERSION, data.getFormatVersion());
+        HistoryTestSupport.assertSameMoves(log, data.getMoveLog());
+
+        // Se miden los bytes sin comprimir de todos los bloques, al escribir y al leer
+        long dataBytes = log.getWordCount() * Long.BYTES;
+        assertEquals(dataBytes, aux.getLastCompressedWrite().getBytes());
+        assertEquals(dataBytes, aux.getLastCompressedRead().getBytes());
+        assertTrue(aux.getLastCompressedWrite().getThroughput() > 0);
+        assertTrue(aux.getLastCompressedRead().getThroughput() > 0);
+    }
+
+    @Test
+    void randomAccessAcrossBlocks() throws IOException {
+        MoveLog log = HistoryTestSupport.solve(DISCS, 3);
+        String filename = files.saved(aux.saveHistoryToCompressedBinary(log));
+
+        try (CompressedHistory history = aux.openCompressedHistory(filename)) {
+            assertEquals(log.size(), history.size());
+            assertTrue(history.getBlockCount() > 1);
+            assertTrue(history.getCompressionRatio() > 1);
+
+            // Último movimiento de un bloque y primero del siguiente, en ambos sentidos
+            long boundary = (long) CompressedHistory.BLOCK_WORDS * history.getMovesPerWord();
+            for (long index : new long[] {log.size() - 1, boundary, boundary - 1, 0, boundary + 1}) {
+                assertEquals(log.fromAt(index), history.fromAt(index), "origen del movimiento " + index);
+                assertEquals(log.toAt(index), history.toAt(index), "destino del movimiento " + index);
+            }
+            for (long word = 0; word < log.getWordCount(); word += 1021) {
+                assertEquals(log.wordAt(word), history.wordAt(word));
+            }
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        String filename = files.saved(aux.saveHistoryToCompressedBinary(HistoryTestSupport.solve(12, 3)));
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE)) {
+            channel.truncate(PackedHistoryFormat.HEADER_SIZE + 4);
+        }
+
+        assertThrows(IOException.class, () -> aux.openCompressedHistory(filename));
+        assertThrows(IOException.class, () -> aux.readHistoryFromBinary(filename));
+    }
+}
@@ -0,0 +1,147 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del catálogo de historiales: lápidas, recarga y compactación
+ */
+class HistoryCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadAppliesAddsAndTombstones() throws IOException {
+        Path path = directory.resolve("historiales.catalog");
+        HistoryCatalog catalog = HistoryCatalog.open(path);
+        catalog.add(entry("a.bin", 3, 7));
+        catalog.add(entry("b.bin", 4, 15));
+        catalog.add(entry("c.txt", 5, 40));
+        assertTrue(catalog.remove("b.bin"));
+        assertFalse(catalog.remove("b.bin"));
+        catalog.add(entry("a.bin", 6, 63));     // Sustituye a la entrada anterior
+        catalog.close();
+
+        HistoryCatalog reloaded = HistoryCatalog.open(path);
+        assertEquals(List.of("a.bin", "c.txt"), reloaded.getFilenames());
+        assertNull(reloaded.get("b.bin"));
+        assertEquals(6, reloaded.get("a.bin").getDiscCount());
+        assertEquals(63, reloaded.get("a.bin").getTotalMoves());
+        assertEquals(3, reloaded.get("a.bin").getNumberOfPegs());
+        assertEquals(1700000000000L, reloaded.get("c.txt").getTimestamp());
+        reloaded.close();
+    }
+
+    @Test
+    void findFiltersByDiscsAndOptimality() throws IOException {
+        HistoryCatalog catalog = HistoryCatalog.open(directory.resolve("historiales.catalog"));
+        catalog.add(entry("optimo.bin", 4, 15));
+        catalog.add(entry("largo.bin", 4, 40));
+        catalog.add(entry("otro.bin", 5, 31));
+
+        assertEquals(2, catalog.find(4, false, 0, Long.MAX_VALUE).size());
+        assertEquals("optimo.bin", catalog.find(4, true, 0, Long.MAX_VALUE).get(0).getFilename());
+        assertEquals(2, catalog.find(0, true, 0, Long.MAX_VALUE).size());
+        assertTrue(catalog.find(0, false, 0, 1700000000000L).isEmpty());
+        catalog.close();
+    }
+
+    @Test
+    void partialRecordAtTheEndIsDiscarded() throws IOException {
+        Path path = directory.resolve("historiales.catalog");
+        HistoryCatalog catalog = HistoryCatalog.open(path);
+        catalog.add(entry("a.bin", 3, 7));
+        catalog.close();
+        long validLength = Files.size(path);
+
+        // Un cierre a mitad de un registro deja solo el tipo y parte del nombre
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 0, 20, 'b'}));
+        }
+
+        catalog = HistoryCatalog.open(path);
+        assertEquals(validLength, Files.size(path));
+        catalog.add(entry("b.bin", 4, 15));
+        catalog.close();
+
+        assertEquals(List.of("a.bin", "b.bin"), HistoryCatalog.open(path).getFilenames());
+    }
+
+    @Test
+    void tombstonesAreCompacted() throws IOException {
+        Path path = directory.resolve("historiales.catalog");
+        HistoryCatalog catalog = HistoryCatalog.open(path);
+        long emptySize = Files.size(path);
+        for (int i = 0; i < 600; i++) {
+            catalog.add(entry(String.format("h%03d.bin", i), 3, 7));
+        }
+        long fullSize = Files.size(path);
+        long recordSize = (fullSize - emptySize) / 600;
+        for (int i = 0; i < 511; i++) {
+            catalog.remove(String.format("h%03d.bin", i));
+        }
+        assertTrue(Files.size(path) > fullSize);
+
+        // 1024 lápidas frente a 88 entradas vivas: el índice se reescribe sin ellas
+        catalog.remove("h511.bin");
+        assertEquals(emptySize, catalog.get("h512.bin").getCatalogOffset());
+        assertEquals(emptySize + 88 * recordSize, Files.size(path));
+        catalog.close();
+
+        HistoryCatalog reloaded = HistoryCatalog.open(path);
+        assertEquals(88, reloaded.size());
+        assertEquals("h512.bin", reloaded.getFilenames().get(0));
+        reloaded.close();
+    }
+
+    @Test
+    void textHistoriesKeepTheirPegCountAfterRebuild() throws IOException {
+        Aux aux = new Aux();
+        HistoryTestSupport files = new HistoryTestSupport(aux);
+        try {
+            String fourPegs = files.saved(aux.saveHistoryToText(HistoryTestSupport.solve(5, 4).cursor(),
+                    new String[] {"A", "B", "C", "D"}, 5, ""));
+            String threePegs = files.saved(aux.saveHistoryToText(List.of("Movimiento 1: Disco 1 de Torre A a Torre C"),
+                    1, 1, ""));
+
+            assertEquals(4, pegsOf(aux, fourPegs));
+            assertEquals(3, pegsOf(aux, threePegs));
+
+            // Al reconstruir el catálogo el número de torres sale de la cabecera del archivo
+            aux.rebuildCatalog();
+            assertEquals(4, pegsOf(aux, fourPegs));
+            assertEquals(3, pegsOf(aux, threePegs));
+        } finally {
+            files.deleteSaved();
+        }
+    }
+
+    private static int pegsOf(Aux aux, String filename) {
+        String name = Path.of(filename).getFileName().toString();
+        for (HistoryCatalog.Entry entry : aux.findHistories(0, false, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            if (entry.getFilename().equals(name)) {
+                return entry.getNumberOfPegs();
+            }
+        }
+        throw new AssertionError("Historial no registrado: " + name);
+    }
+
+    private static HistoryCatalog.Entry entry(String filename, int discs, long totalMoves) {
+        return new HistoryCatalog.Entry(filename, HistoryCatalog.FORMAT_PACKED, discs, 3, totalMoves,
+                (1L << discs) - 1, 1700000000000L, 1024);
+    }
+}
@@ -0,0 +1,107 @@
+package Controller;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.MoveCursor;
+import Methods.Models.MoveLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del diario de movimientos y de la recuperación tras un cierre inesperado
+ */
+class HistoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryJournaledMove() throws IOException {
+        Path path = directory.resolve("partida.journal");
+        MoveLog solution = HistoryTestSupport.solve(10, 4);
+
+        try (HistoryJournal journal = new HistoryJournal(path, 64, 1000)) {
+            journal.begin(new MoveLog(10, 4));
+            replay(journal, solution.cursor(), Long.MAX_VALUE);
+        }
+
+        HanoiGame game = HistoryJournal.recover(path);
+        assertNotNull(game);
+        assertEquals(4, game.getNumberOfPegs());
+        assertTrue(game.isGameCompleted());
+        HistoryTestSupport.assertSameMoves(solution, game.getMoveLog());
+    }
+
+    @Test
+    void beginWritesMovesAlreadyPlayed() throws IOException {
+        Path path = directory.resolve("partida.journal");
+        MoveLog solution = HistoryTestSupport.solve(8, 3);
+        MoveLog played = new MoveLog(8, 3);
+        for (long i = 0; i < 100; i++) {
+            played.append(solution.fromAt(i), solution.toAt(i));
+        }
+
+        try (HistoryJournal journal = new HistoryJournal(path, 64, 1000)) {
+            journal.begin(played);
+        }
+
+        HistoryTestSupport.assertSameMoves(played, HistoryJournal.recover(path).getMoveLog());
+    }
+
+    @Test
+    void recoverStopsAtDamagedTail() throws IOException {
+        Path path = directory.resolve("partida.journal");
+        MoveLog solution = HistoryTestSupport.solve(9, 3);
+
+        try (HistoryJournal journal = new HistoryJournal(path, 64, 1000)) {
+            journal.begin(new MoveLog(9, 3));
+            replay(journal, solution.cursor(), 300);
+        }
+
+        // Una escritura a medias deja bytes que no son movimientos válidos
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF, 0x02, 0x01}));
+        }
+
+        HanoiGame game = HistoryJournal.recover(path);
+        assertNotNull(game);
+        assertEquals(300, game.getMoveCount());
+        for (long i = 0; i < 300; i++) {
+            assertEquals(solution.toAt(i), game.getMoveLog().toAt(i), "destino del movimiento " + i);
+        }
+    }
+
+    @Test
+    void recoverIgnoresTruncatedHeader() throws IOException {
+        Path path = directory.resolve("partida.journal");
+        assertNull(HistoryJournal.recover(path));
+
+        try (HistoryJournal journal = new HistoryJournal(path, 64, 1000)) {
+            journal.begin(new MoveLog(5, 3));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(HistoryJournal.HEADER_SIZE - 1);
+        }
+        assertNull(HistoryJournal.recover(path));
+
+        Files.write(path, new byte[HistoryJournal.HEADER_SIZE + 4]);
+        assertNull(HistoryJournal.recover(path));
+    }
+
+    private static void replay(HistoryJournal journal, MoveCursor cursor, long limit) {
+        while (cursor.moveNumber() < limit && cursor.next()) {
+            journal.accept(cursor.disc(), cursor.from(), cursor.to());
+        }
+    }
+}
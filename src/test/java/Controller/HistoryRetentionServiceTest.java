@@ -0,0 +1,80 @@
+package Controller;
+
+import Controller.HistoryRetentionService.RetentionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la selección de historiales que exceden la política de retención
+ */
+class HistoryRetentionServiceTest {
+
+    private static final long NOW = 1700000000000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * Diez historiales de 100 bytes, uno por día (h0 el más antiguo), en orden desordenado
+     */
+    private static List<HistoryCatalog.Entry> histories() {
+        List<HistoryCatalog.Entry> entries = new ArrayList<>();
+        for (int i : new int[] {4, 9, 0, 7, 2, 5, 1, 8, 3, 6}) {
+            entries.add(new HistoryCatalog.Entry("h" + i + ".bin", HistoryCatalog.FORMAT_PACKED,
+                    3, 3, 7, 7, NOW - (10 - i) * DAY, 100));
+        }
+        return entries;
+    }
+
+    @Test
+    void unlimitedPolicyKeepsEverything() {
+        RetentionPolicy policy = new RetentionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+        assertTrue(HistoryRetentionService.selectExpired(histories(), policy, NOW).isEmpty());
+    }
+
+    @Test
+    void maxAgeRemovesOlderHistories() {
+        // h0..h2 tienen 10, 9 y 8 días; h3 tiene exactamente 7 y se conserva
+        RetentionPolicy policy = new RetentionPolicy(7 * DAY, Long.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(List.of("h0.bin", "h1.bin", "h2.bin"), names(policy));
+    }
+
+    @Test
+    void maxFilesRemovesOldestFirst() {
+        RetentionPolicy policy = new RetentionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, 6);
+        assertEquals(List.of("h0.bin", "h1.bin", "h2.bin", "h3.bin"), names(policy));
+        assertEquals(10, names(new RetentionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, 0)).size());
+    }
+
+    @Test
+    void maxTotalBytesStopsAtTheLimit() {
+        // 1000 bytes en total: con un límite de 750 hay que quitar tres
+        RetentionPolicy policy = new RetentionPolicy(Long.MAX_VALUE, 750, Integer.MAX_VALUE);
+        assertEquals(List.of("h0.bin", "h1.bin", "h2.bin"), names(policy));
+        assertTrue(names(new RetentionPolicy(Long.MAX_VALUE, 1000, Integer.MAX_VALUE)).isEmpty());
+    }
+
+    @Test
+    void strictestLimitWins() {
+        RetentionPolicy policy = new RetentionPolicy(9 * DAY, 600, 8);
+        assertEquals(List.of("h0.bin", "h1.bin", "h2.bin", "h3.bin"), names(policy));
+    }
+
+    @Test
+    void rejectsNegativeLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionPolicy(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RetentionPolicy(0, 0, -1));
+    }
+
+    private static List<String> names(RetentionPolicy policy) {
+        List<String> names = new ArrayList<>();
+        for (HistoryCatalog.Entry entry : HistoryRetentionService.selectExpired(histories(), policy, NOW)) {
+            names.add(entry.getFilename());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,68 @@
+package Controller;
+
+import Methods.Models.FrameStewartSolver;
+import Methods.Models.HanoiSolver;
+import Methods.Models.IterativeSolver;
+import Methods.Models.MoveCursor;
+import Methods.Models.MoveLog;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Utilidades comunes de las pruebas de historiales
+ * Los archivos se guardan con Aux (en hanoi_history, bajo el directorio de trabajo);
+ * los que se anotan con saved se borran al llamar a deleteSaved
+ */
+final class HistoryTestSupport {
+
+    private final Aux aux;
+    private final List<String> saved = new ArrayList<>();
+
+    HistoryTestSupport(Aux aux) {
+        this.aux = aux;
+    }
+
+    /**
+     * Anota un archivo guardado para borrarlo al terminar la prueba
+     * @param filename Ruta devuelta por Aux
+     * @return La misma ruta
+     */
+    String saved(String filename) {
+        saved.add(filename);
+        return filename;
+    }
+
+    void deleteSaved() {
+        for (String filename : saved) {
+            aux.deleteHistoryFile(Paths.get(filename).getFileName().toString());
+        }
+        saved.clear();
+    }
+
+    /**
+     * Registro con la solución óptima
+     */
+    static MoveLog solve(int discs, int pegs) {
+        MoveLog log = new MoveLog(discs, pegs);
+        HanoiSolver solver = pegs == 3 ? new IterativeSolver() : new FrameStewartSolver();
+        solver.solve(discs, pegs, (disc, from, to) -> log.append(from, to));
+        return log;
+    }
+
+    static void assertSameMoves(MoveLog expected, MoveLog actual) {
+        assertEquals(expected.size(), actual.size());
+        MoveCursor left = expected.cursor();
+        MoveCursor right = actual.cursor();
+        while (left.next()) {
+            assertTrue(right.next());
+            assertEquals(left.disc(), right.disc(), "disco del movimiento " + left.moveNumber());
+            assertEquals(left.from(), right.from(), "origen del movimiento " + left.moveNumber());
+            assertEquals(left.to(), right.to(), "destino del movimiento " + left.moveNumber());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package Controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la verificación de integridad de los historiales
+ */
+class HistoryVerifierTest {
+
+    private Aux aux;
+    private HistoryTestSupport files;
+
+    @BeforeEach
+    void setUp() {
+        aux = new Aux();
+        files = new HistoryTestSupport(aux);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.deleteSaved();
+    }
+
+    @Test
+    void acceptsIntactFiles() throws IOException {
+        Path packed = savePacked();
+        Path compressed = saveCompressed();
+
+        HistoryVerifier.Report report = HistoryVerifier.verifyAll(List.of(packed, compressed), 2);
+        assertTrue(report.getCorrupt().isEmpty());
+        for (HistoryVerifier.Result result : report.getResults()) {
+            assertEquals(HistoryVerifier.Status.OK, result.getStatus(), result.toString());
+        }
+        assertTrue(report.getBytes() > 0);
+    }
+
+    @Test
+    void rejectsFlippedByte() throws IOException {
+        Path packed = savePacked();
+        Path compressed = saveCompressed();
+
+        flipByte(packed, PackedHistoryFormat.HEADER_SIZE + 100);
+        flipByte(compressed, PackedHistoryFormat.HEADER_SIZE + 10);
+
+        assertEquals(HistoryVerifier.Status.CORRUPT, HistoryVerifier.verify(packed).getStatus());
+        assertEquals(HistoryVerifier.Status.CORRUPT, HistoryVerifier.verify(compressed).getStatus());
+        assertThrows(IOException.class, () -> aux.readHistoryFromBinary(packed.toString()));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path packed = savePacked();
+        Path compressed = saveCompressed();
+
+        truncate(packed, Integer.BYTES);
+        truncate(compressed, Integer.BYTES);
+
+        HistoryVerifier.Report report = HistoryVerifier.verifyAll(List.of(packed, compressed), 2);
+        assertEquals(2, report.getCorrupt().size());
+        assertThrows(IOException.class, () -> aux.readHistoryFromBinary(packed.toString()));
+    }
+
+    @Test
+    void filesWithoutChecksumsAreUnverifiable() throws IOException {
+        List<String> moves = List.of("Movimiento 1: Disco 1 de Torre A a Torre C");
+        Path legacy = Paths.get(files.saved(aux.saveHistoryToBinary(moves, 1, 1)));
+        Path truncated = Paths.get(files.saved(aux.saveHistoryToBinary(moves, 2, 1)));
+        Path text = Paths.get(files.saved(aux.saveHistoryToText(moves, 1, 1, "")));
+        truncate(truncated, 3);
+
+        // La estructura de un v1 se comprueba, pero sin sumas no se puede dar por correcto
+        HistoryVerifier.Report report = HistoryVerifier.verifyAll(List.of(legacy, truncated, text), 2);
+        assertEquals(HistoryVerifier.Status.UNCHECKED, report.getResults().get(0).getStatus());
+        assertEquals(HistoryVerifier.Status.CORRUPT, report.getResults().get(1).getStatus());
+        assertEquals(HistoryVerifier.Status.UNCHECKED, report.getResults().get(2).getStatus());
+        assertEquals(2, report.getUnchecked().size());
+    }
+
+    private Path savePacked() throws IOException {
+        return Paths.get(files.saved(aux.saveHistoryToPackedBinary(HistoryTestSupport.solve(16, 3))));
+    }
+
+    private Path saveCompressed() throws IOException {
+        return Paths.get(files.saved(aux.saveHistoryToCompressedBinary(HistoryTestSupport.solve(16, 3))));
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0));
+            value.rewind();
+            channel.write(value, position);
+        }
+    }
+
+    private static void truncate(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+}
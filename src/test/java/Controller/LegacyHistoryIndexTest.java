@@ -0,0 +1,135 @@
+package Controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del índice disperso de los historiales v1
+ */
+class LegacyHistoryIndexTest {
+
+    private Aux aux;
+    private HistoryTestSupport files;
+
+    @BeforeEach
+    void setUp() {
+        aux = new Aux();
+        files = new HistoryTestSupport(aux);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.deleteSaved();
+    }
+
+    @Test
+    void moveAtMatchesHistory() throws IOException {
+        List<String> moves = movesOf(3 * LegacyHistoryIndex.DEFAULT_STRIDE + 17, "");
+        String filename = files.saved(aux.saveHistoryToBinary(moves, 12, moves.size()));
+
+        try (LegacyHistoryIndex index = aux.openIndexedHistory(filename)) {
+            assertEquals(moves.size(), index.size());
+            assertTrue(Files.exists(LegacyHistoryIndex.indexPathFor(Paths.get(filename))));
+            for (int i = 0; i < moves.size(); i += 97) {
+                assertEquals(moves.get(i), index.moveAt(i), "movimiento " + i);
+            }
+            assertEquals(moves.get(moves.size() - 1), index.moveAt(moves.size() - 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> index.moveAt(moves.size()));
+        }
+    }
+
+    @Test
+    void readMovesCrossesStrideAndStopsAtEnd() throws IOException {
+        List<String> moves = movesOf(2500, "");
+        String filename = files.saved(aux.saveHistoryToBinary(moves, 12, moves.size()));
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.build(Paths.get(filename), 64)) {
+            assertEquals(moves.subList(60, 200), index.readMoves(60, 140));
+            assertEquals(moves.subList(2490, 2500), index.readMoves(2490, 50));
+        }
+
+        // El índice guardado con otro paso se reutiliza tal cual
+        try (LegacyHistoryIndex index = aux.openIndexedHistory(filename)) {
+            assertEquals(64, index.getStride());
+            assertEquals(moves.subList(1000, 1010), index.readMoves(1000, 10));
+        }
+    }
+
+    @Test
+    void staleIndexIsRebuilt() throws IOException {
+        List<String> original = movesOf(1500, "");
+        List<String> replacement = movesOf(2600, "Partida nueva ");
+        Path history = Paths.get(files.saved(aux.saveHistoryToBinary(original, 11, original.size())));
+        Path other = Paths.get(files.saved(aux.saveHistoryToBinary(replacement, 12, replacement.size())));
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.open(history)) {
+            assertEquals(original.size(), index.size());
+        }
+
+        // Sustituir el .bin deja el índice con una longitud que ya no coincide
+        Files.copy(other, history, StandardCopyOption.REPLACE_EXISTING);
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.open(history)) {
+            assertEquals(replacement.size(), index.size());
+            assertEquals(replacement.get(2599), index.moveAt(2599));
+        }
+    }
+
+    @Test
+    void sameSizeRewriteIsDetected() throws IOException {
+        // Mismo número y longitud de registros: solo cambia la fecha de modificación
+        List<String> original = movesOf(1500, "A ");
+        List<String> replacement = movesOf(1500, "B ");
+        Path history = Paths.get(files.saved(aux.saveHistoryToBinary(original, 11, original.size())));
+        Path other = Paths.get(files.saved(aux.saveHistoryToBinary(replacement, 12, replacement.size())));
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.build(history, 512)) {
+            assertEquals(original.get(0), index.moveAt(0));
+        }
+
+        FileTime modified = Files.getLastModifiedTime(history);
+        Files.copy(other, history, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(history, FileTime.fromMillis(modified.toMillis() + 10_000));
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.open(history)) {
+            assertEquals(LegacyHistoryIndex.DEFAULT_STRIDE, index.getStride());
+            assertEquals(replacement.get(1499), index.moveAt(1499));
+        }
+    }
+
+    @Test
+    void corruptIndexIsRebuilt() throws IOException {
+        List<String> moves = movesOf(1200, "");
+        Path history = Paths.get(files.saved(aux.saveHistoryToBinary(moves, 11, moves.size())));
+        Files.write(LegacyHistoryIndex.indexPathFor(history), new byte[] {1, 2, 3});
+
+        try (LegacyHistoryIndex index = LegacyHistoryIndex.open(history)) {
+            assertEquals(moves.get(1100), index.moveAt(1100));
+        }
+    }
+
+    /**
+     * Movimientos de longitud variable, como los que escribe el juego
+     */
+    private static List<String> movesOf(int count, String prefix) {
+        List<String> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(prefix + "Movimiento " + (i + 1) + ": Disco " + (i % 7 + 1) + " de Torre A a Torre C");
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,78 @@
+package Controller;
+
+import Methods.Models.MoveLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del lector mapeado en memoria con acceso directo a cualquier movimiento
+ */
+class MappedHistoryTest {
+
+    private Aux aux;
+    private HistoryTestSupport files;
+
+    @BeforeEach
+    void setUp() {
+        aux = new Aux();
+        files = new HistoryTestSupport(aux);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.deleteSaved();
+    }
+
+    @Test
+    void randomAccessMatchesLog() throws IOException {
+        for (int pegs = 3; pegs <= 4; pegs++) {
+            MoveLog log = HistoryTestSupport.solve(pegs == 3 ? 16 : 20, pegs);
+            String filename = files.saved(aux.saveHistoryToPackedBinary(log));
+
+            try (MappedHistory history = aux.openMappedHistory(filename)) {
+                assertEquals(log.size(), history.size());
+                assertEquals(log.getNumberOfPegs(), history.getNumberOfPegs());
+                assertTrue(history.isOptimal());
+
+                // Saltos hacia delante y hacia atrás, sin recorrer el archivo
+                long step = 7919;
+                for (long i = 0, index = 0; i < log.size(); i++, index = (index + step) % log.size()) {
+                    assertEquals(log.fromAt(index), history.fromAt(index), "origen del movimiento " + index);
+                    assertEquals(log.toAt(index), history.toAt(index), "destino del movimiento " + index);
+                }
+                for (long word = 0; word < log.getWordCount(); word++) {
+                    assertEquals(log.wordAt(word), history.wordAt(word));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsIndexOutOfRange() throws IOException {
+        MoveLog log = HistoryTestSupport.solve(5, 3);
+        try (MappedHistory history = aux.openMappedHistory(files.saved(aux.saveHistoryToPackedBinary(log)))) {
+            assertThrows(IndexOutOfBoundsException.class, () -> history.fromAt(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> history.toAt(log.size()));
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        String filename = files.saved(aux.saveHistoryToPackedBinary(HistoryTestSupport.solve(12, 3)));
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Long.BYTES);
+        }
+
+        assertThrows(IOException.class, () -> aux.openMappedHistory(filename));
+    }
+}
@@ -0,0 +1,93 @@
+package Controller;
+
+import Methods.Models.HanoiGame;
+import Methods.Models.MoveLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de ida y vuelta del formato binario compacto
+ */
+class PackedHistoryTest {
+
+    private Aux aux;
+    private HistoryTestSupport files;
+
+    @BeforeEach
+    void setUp() {
+        aux = new Aux();
+        files = new HistoryTestSupport(aux);
+    }
+
+    @AfterEach
+    void tearDown() {
+        files.deleteSaved();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        for (int pegs = 3; pegs <= 4; pegs++) {
+            MoveLog log = HistoryTestSupport.solve(12, pegs);
+            String filename = files.saved(aux.saveHistoryToPackedBinary(log));
+            Aux.GameHistoryData data = aux.readHistoryFromBinary(filename);
+
+            assertEquals(PackedHistoryFormat.VERSION, data.getFormatVersion());
+            assertEquals(12, data.getDiscCount());
+            assertEquals(log.size(), data.getTotalMoves());
+            HistoryTestSupport.assertSameMoves(log, data.getMoveLog());
+
+            // Cabecera, palabras empaquetadas tal cual y pie con las sumas
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filename)));
+            PackedHistoryFormat.Header header = PackedHistoryFormat.readHeader(buffer);
+            assertEquals(log.getWordCount() * Long.BYTES, header.dataLength());
+            assertEquals(PackedHistoryFormat.HEADER_SIZE + header.dataLength() + header.footerLength(),
+                    buffer.capacity());
+        }
+    }
+
+    @Test
+    void cursorAndLogWriteTheSameMoves() throws IOException {
+        MoveLog log = HistoryTestSupport.solve(13, 3);
+        String fromLog = files.saved(aux.saveHistoryToPackedBinary(log));
+        String fromCursor = files.saved(aux.saveHistoryToPackedBinary(log.cursor(), 13, 3));
+
+        HistoryTestSupport.assertSameMoves(aux.readHistoryFromBinary(fromLog).getMoveLog(),
+                aux.readHistoryFromBinary(fromCursor).getMoveLog());
+    }
+
+    @Test
+    void rejectsUnsupportedVersion() {
+        ByteBuffer header = header((short) 99, 3, 4);
+        assertThrows(IOException.class, () -> PackedHistoryFormat.readHeader(header));
+    }
+
+    @Test
+    void rejectsInvalidPegsOrMoveWidth() throws IOException {
+        PackedHistoryFormat.readHeader(header(PackedHistoryFormat.VERSION, 4, MoveLog.bitsPerMoveFor(4)));
+
+        // Torres fuera de rango y un ancho que no corresponde a las torres
+        assertThrows(IOException.class, () -> PackedHistoryFormat.readHeader(header(PackedHistoryFormat.VERSION, 2, 4)));
+        assertThrows(IOException.class, () -> PackedHistoryFormat.readHeader(
+                header(PackedHistoryFormat.VERSION, HanoiGame.MAX_PEGS + 1, MoveLog.bitsPerMoveFor(HanoiGame.MAX_PEGS))));
+        assertThrows(IOException.class, () -> PackedHistoryFormat.readHeader(header(PackedHistoryFormat.VERSION, 3, 6)));
+    }
+
+    private static ByteBuffer header(short version, int pegs, int bitsPerMove) {
+        ByteBuffer header = ByteBuffer.allocate(PackedHistoryFormat.HEADER_SIZE);
+        header.putInt(0, PackedHistoryFormat.MAGIC);
+        header.putShort(4, version);
+        header.put(6, (byte) pegs);
+        header.put(7, (byte) bitsPerMove);
+        header.putInt(8, 3);
+        return header;
+    }
+}
@@ -0,0 +1,113 @@
+package Methods.Models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del registro compacto de movimientos
+ * Con 13 discos hay 8191 movimientos: se cruzan los puntos de control de 4096 y 8192
+ */
+class MoveLogTest {
+
+    private static final int DISCS = 13;
+
+    @Test
+    void storesEveryMoveOfTheSolution() {
+        List<int[]> moves = SolverTest.collect(new IterativeSolver(), DISCS);
+        MoveLog log = logOf(moves);
+
+        assertEquals(moves.size(), log.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(moves.get(i)[1], log.fromAt(i), "origen del movimiento " + i);
+            assertEquals(moves.get(i)[2], log.toAt(i), "destino del movimiento " + i);
+        }
+    }
+
+    @Test
+    void discAtAcrossCheckpointBoundary() {
+        List<int[]> moves = SolverTest.collect(new IterativeSolver(), DISCS);
+        MoveLog log = logOf(moves);
+
+        // Alrededor del punto de control y en todo el registro
+        for (long index : new long[] {0, 4094, 4095, 4096, 4097, 8190}) {
+            assertEquals(moves.get((int) index)[0], log.discAt(index), "disco del movimiento " + index);
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(moves.get(i)[0], log.discAt(i), "disco del movimiento " + i);
+        }
+    }
+
+    @Test
+    void forEachMatchesAppendedMoves() {
+        List<int[]> moves = SolverTest.collect(new IterativeSolver(), DISCS);
+        List<int[]> replayed = new ArrayList<>();
+        logOf(moves).forEach((disc, from, to) -> replayed.add(new int[] {disc, from, to}));
+
+        assertEquals(moves.size(), replayed.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(List.of(moves.get(i)[0], moves.get(i)[1], moves.get(i)[2]),
+                    List.of(replayed.get(i)[0], replayed.get(i)[1], replayed.get(i)[2]));
+        }
+    }
+
+    @Test
+    void cursorMatchesAppendedMoves() {
+        List<int[]> moves = SolverTest.collect(new IterativeSolver(), DISCS);
+        MoveCursor cursor = logOf(moves).cursor();
+
+        assertEquals(moves.size(), cursor.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertTrue(cursor.next());
+            assertEquals(i + 1, cursor.moveNumber());
+            assertEquals(moves.get(i)[0], cursor.disc(), "disco del movimiento " + i);
+            assertEquals(moves.get(i)[1], cursor.from());
+            assertEquals(moves.get(i)[2], cursor.to());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void clearStartsOver() {
+        MoveLog log = logOf(SolverTest.collect(new IterativeSolver(), DISCS));
+        log.clear();
+
+        assertEquals(0, log.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> log.discAt(0));
+        log.append(0, 2);
+        assertEquals(1, log.discAt(0));
+    }
+
+    @Test
+    void snapshotIsIndependentOfLaterChanges() {
+        List<int[]> moves = SolverTest.collect(new IterativeSolver(), DISCS);
+        MoveLog log = logOf(moves.subList(0, 5000));
+        MoveLog snapshot = log.snapshot();
+
+        // Seguir escribiendo en el último bloque y reiniciar no altera la copia
+        for (int[] move : moves.subList(5000, moves.size())) {
+            log.append(move[1], move[2]);
+        }
+        log.clear();
+
+        assertEquals(5000, snapshot.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(moves.get(i)[0], snapshot.discAt(i), "disco del movimiento " + i);
+            assertEquals(moves.get(i)[2], snapshot.toAt(i), "destino del movimiento " + i);
+        }
+    }
+
+    static MoveLog logOf(List<int[]> moves) {
+        MoveLog log = new MoveLog(DISCS, 3);
+        for (int[] move : moves) {
+            log.append(move[1], move[2]);
+        }
+        return log;
+    }
+}
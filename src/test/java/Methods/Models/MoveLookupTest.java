@@ -0,0 +1,73 @@
+package Methods.Models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del acceso directo al movimiento k y al estado tras k movimientos,
+ * comparados con una simulación completa de la solución
+ */
+class MoveLookupTest {
+
+    @Test
+    void moveAtMatchesSimulation() {
+        for (int discs = 1; discs <= 12; discs++) {
+            List<int[]> moves = SolverTest.collect(new IterativeSolver(), discs);
+            for (int k = 1; k <= moves.size(); k++) {
+                int[] move = moves.get(k - 1);
+                assertEquals(move[0], IterativeSolver.discAt(k), "disco del movimiento " + k);
+                assertEquals(move[1], IterativeSolver.fromPegAt(discs, k), "origen del movimiento " + k);
+                assertEquals(move[2], IterativeSolver.toPegAt(discs, k), "destino del movimiento " + k);
+            }
+        }
+    }
+
+    @Test
+    void towersAtMatchesSimulation() {
+        for (int discs = 1; discs <= 12; discs++) {
+            long[] towers = {(1L << discs) - 1, 0, 0};
+            assertArrayEquals(towers, IterativeSolver.towersAt(discs, 0));
+
+            long k = 0;
+            for (int[] move : SolverTest.collect(new IterativeSolver(), discs)) {
+                long bit = 1L << (move[0] - 1);
+                towers[move[1]] &= ~bit;
+                towers[move[2]] |= bit;
+                k++;
+                assertArrayEquals(towers, IterativeSolver.towersAt(discs, k), "estado tras " + k + " movimientos");
+            }
+        }
+    }
+
+    @Test
+    void gameMoveAtMatchesPlayedHistory() {
+        HanoiGame game = new HanoiGame(6);
+        game.startAutoSolution();
+        List<String> history = game.getMoveHistory();
+
+        assertEquals(game.getMinimumMoves(), history.size());
+        for (int k = 1; k <= history.size(); k++) {
+            assertEquals(history.get(k - 1), game.getMoveAt(k));
+        }
+        assertArrayEquals(new long[] {0, 0, (1L << 6) - 1}, game.getTowerMasksAt(history.size()));
+    }
+
+    @Test
+    void lastMoveFollowsEveryMove() {
+        HanoiGame game = new HanoiGame(5, 4);
+        assertNull(game.getLastMove());
+
+        // Con cuatro torres; el historial deduce el disco repitiendo los movimientos
+        for (int[] move : SolverTest.collect(new FrameStewartSolver(), 5, 4)) {
+            assertTrue(game.moveDisc(move[1], move[2]));
+            List<String> history = game.getMoveHistory();
+            assertEquals(history.get(history.size() - 1), game.getLastMove());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Methods.Models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas del motor paralelo: su registro debe coincidir con el del motor iterativo
+ */
+class ParallelSolverTest {
+
+    @Test
+    void generateMatchesIterativeSolver() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelSolver solver = new ParallelSolver(pool);
+            for (int discs : new int[] {1, 2, 3, 7, 12, 13, 16, 20}) {
+                assertSameLog(iterativeLog(discs), solver.generate(discs), discs);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void solveStreamsTheSameMoves() {
+        int discs = 14;
+        MoveLog streamed = new MoveLog(discs, 3);
+        new ParallelSolver().solve(discs, (disc, from, to) -> streamed.append(from, to));
+        assertSameLog(iterativeLog(discs), streamed, discs);
+    }
+
+    @Test
+    void rejectsDiscCountOutOfRange() {
+        ParallelSolver solver = new ParallelSolver();
+        assertThrows(IllegalArgumentException.class, () -> solver.generate(0));
+        assertThrows(IllegalArgumentException.class, () -> solver.generate(ParallelSolver.MAX_DISCS + 1));
+    }
+
+    private static MoveLog iterativeLog(int discs) {
+        MoveLog log = new MoveLog(discs, 3);
+        new IterativeSolver().solve(discs, (disc, from, to) -> log.append(from, to));
+        return log;
+    }
+
+    private static void assertSameLog(MoveLog expected, MoveLog actual, int discs) {
+        assertEquals(expected.size(), actual.size(), "movimientos con " + discs + " discos");
+        assertEquals(expected.getWordCount(), actual.getWordCount());
+        for (long word = 0; word < expected.getWordCount(); word++) {
+            if (expected.wordAt(word) != actual.wordAt(word)) {
+                assertEquals(expected.wordAt(word), actual.wordAt(word), "palabra " + word + " con " + discs + " discos");
+            }
+        }
+
+        // Los discos se deducen de los puntos de control que escribe cada tarea
+        long interval = MoveLog.getCheckpointInterval();
+        for (long checkpoint = 0; checkpoint < expected.size(); checkpoint += interval) {
+            for (long i = checkpoint; i < Math.min(checkpoint + 2, expected.size()); i++) {
+                assertEquals(expected.discAt(i), actual.discAt(i), "disco del movimiento " + i + " con " + discs + " discos");
+            }
+        }
+        long last = expected.size() - 1;
+        assertEquals(expected.discAt(last), actual.discAt(last));
+    }
+}
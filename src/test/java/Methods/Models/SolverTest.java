@@ -0,0 +1,119 @@
+package Methods.Models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de los motores de resolución
+ */
+class SolverTest {
+
+    // Movimientos mínimos con 4 torres (Frame–Stewart) para 0..20 discos
+    private static final long[] FOUR_PEG_MOVES = {
+            0, 1, 3, 5, 9, 13, 17, 25, 33, 41, 49, 65, 81, 97, 113, 129, 161, 193, 225, 257, 289
+    };
+
+    @Test
+    void iterativeMatchesRecursive() {
+        for (int discs = 0; discs <= 14; discs++) {
+            List<int[]> recursive = collect(new RecursiveSolver(), discs);
+            List<int[]> iterative = collect(new IterativeSolver(), discs);
+
+            assertEquals(recursive.size(), iterative.size(), "movimientos con " + discs + " discos");
+            for (int i = 0; i < recursive.size(); i++) {
+                assertEquals(List.of(recursive.get(i)[0], recursive.get(i)[1], recursive.get(i)[2]),
+                        List.of(iterative.get(i)[0], iterative.get(i)[1], iterative.get(i)[2]),
+                        "movimiento " + (i + 1) + " con " + discs + " discos");
+            }
+        }
+    }
+
+    @Test
+    void iterativeSolutionIsLegalAndOptimal() {
+        int discs = 12;
+        List<int[]> moves = collect(new IterativeSolver(), discs);
+        assertEquals((1L << discs) - 1, moves.size());
+        assertLegal(moves, discs, 3);
+    }
+
+    @Test
+    void iterativeCursorMatchesSolver() {
+        int discs = 12;
+        List<int[]> moves = collect(new IterativeSolver(), discs);
+        MoveCursor cursor = IterativeSolver.cursor(discs);
+
+        assertEquals(moves.size(), cursor.size());
+        for (int[] move : moves) {
+            assertTrue(cursor.next());
+            assertEquals(move[0], cursor.disc());
+            assertEquals(move[1], cursor.from());
+            assertEquals(move[2], cursor.to());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void frameStewartFourPegMoveCounts() {
+        for (int discs = 0; discs < FOUR_PEG_MOVES.length; discs++) {
+            assertEquals(FOUR_PEG_MOVES[discs], FrameStewartSolver.minimumMoves(discs, 4), "mínimo con " + discs + " discos");
+            assertEquals(FOUR_PEG_MOVES[discs], HanoiGame.minimumMovesFor(discs, 4), "mínimo del juego con " + discs + " discos");
+            assertEquals(FOUR_PEG_MOVES[discs], collect(new FrameStewartSolver(), discs, 4).size(),
+                    "movimientos generados con " + discs + " discos");
+        }
+    }
+
+    @Test
+    void frameStewartSolutionIsLegal() {
+        int discs = 10;
+        for (int pegs = 3; pegs <= FrameStewartSolver.MAX_PEGS; pegs++) {
+            List<int[]> moves = collect(new FrameStewartSolver(), discs, pegs);
+            assertEquals(HanoiGame.minimumMovesFor(discs, pegs), moves.size(), "movimientos con " + pegs + " torres");
+            assertLegal(moves, discs, pegs);
+        }
+    }
+
+    @Test
+    void threePegSolversRejectOtherPegCounts() {
+        assertThrows(IllegalArgumentException.class, () -> collect(new IterativeSolver(), 3, 4));
+    }
+
+    static List<int[]> collect(HanoiSolver solver, int discs) {
+        return collect(solver, discs, 3);
+    }
+
+    static List<int[]> collect(HanoiSolver solver, int discs, int pegs) {
+        List<int[]> moves = new ArrayList<>();
+        solver.solve(discs, pegs, (disc, from, to) -> moves.add(new int[] {disc, from, to}));
+        return moves;
+    }
+
+    /**
+     * Repite los movimientos sobre pilas de tamaños: solo se puede poner un disco
+     * sobre otro mayor y al final todos deben estar en la última torre
+     */
+    static void assertLegal(List<int[]> moves, int discs, int pegs) {
+        List<List<Integer>> towers = new ArrayList<>();
+        for (int i = 0; i < pegs; i++) {
+            towers.add(new ArrayList<>());
+        }
+        for (int size = discs; size >= 1; size--) {
+            towers.get(0).add(size);
+        }
+        for (int[] move : moves) {
+            List<Integer> from = towers.get(move[1]);
+            List<Integer> to = towers.get(move[2]);
+            int disc = from.remove(from.size() - 1);
+            assertEquals(move[0], disc, "disco movido");
+            assertTrue(to.isEmpty() || to.get(to.size() - 1) > disc, "disco sobre uno menor");
+            to.add(disc);
+        }
+        assertEquals(discs, towers.get(pegs - 1).size());
+    }
+}
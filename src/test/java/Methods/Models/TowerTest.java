@@ -0,0 +1,45 @@
+package Methods.Models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del acceso por nivel a los discos de una torre
+ */
+class TowerTest {
+
+    @Test
+    void discAtMatchesBottomToTopOrder() {
+        // Discos no consecutivos, incluido el más grande que admite la máscara
+        Tower tower = new Tower("A", 0, 0, HanoiGame.MAX_DISCS);
+        for (int size : new int[] {63, 40, 17, 16, 9, 2, 1}) {
+            assertTrue(tower.pushDisc(new Discs(size)));
+        }
+
+        Discs[] expected = tower.getDiscsFromBottomToTop();
+        for (int level = 0; level < expected.length; level++) {
+            assertSame(expected[level], tower.getDiscAt(level), "nivel " + level);
+        }
+        assertNull(tower.getDiscAt(-1));
+        assertNull(tower.getDiscAt(expected.length));
+    }
+
+    @Test
+    void sizeAtSelectsTheRightBit() {
+        long tower = 0;
+        for (int size = 63; size >= 1; size -= 2) {
+            tower = TowerBits.push(tower, size);
+        }
+
+        // Tamaños impares de 63 (base) a 1 (tope)
+        for (int level = 0; level < 32; level++) {
+            assertEquals(63 - 2 * level, TowerBits.sizeAt(tower, level));
+        }
+        assertEquals(0, TowerBits.sizeAt(tower, 32));
+        assertEquals(0, TowerBits.sizeAt(0, 0));
+    }
+}
@@ -0,0 +1,49 @@
+package View;
+
+import Methods.Models.HanoiGame;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la lista virtual del historial con el mayor juego seleccionable
+ */
+class MoveHistoryListTest {
+
+    @Test
+    void largestGameHasOneRowPerMove() {
+        HanoiGame game = new HanoiGame(20);
+        game.startAutoSolution();
+        long moves = game.getMoveCount();
+        assertEquals(1_048_575, moves);
+
+        MoveHistoryList rows = new MoveHistoryList();
+        rows.setSource(game::describeMoveAt);
+        // Crece por tramos, como con las actualizaciones agrupadas de la interfaz
+        for (long m = 0; m < moves; m += 4096) {
+            rows.resize(m);
+        }
+        rows.resize(moves);
+
+        assertEquals(moves, rows.size());
+        assertEquals(game.describeMoveAt(0), rows.get(0));
+        assertEquals(game.describeMoveAt(moves - 1), rows.get(rows.size() - 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(rows.size()));
+    }
+
+    @Test
+    void newSourceEmptiesTheList() {
+        HanoiGame game = new HanoiGame(5);
+        game.startAutoSolution();
+
+        MoveHistoryList rows = new MoveHistoryList();
+        rows.setSource(game::describeMoveAt);
+        rows.resize(game.getMoveCount());
+        assertEquals(31, rows.size());
+
+        rows.setSource(game::describeMoveAt);
+        assertTrue(rows.isEmpty());
+    }
+}